@@ -0,0 +1,65 @@
+package ru.evlitvin.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ru.evlitvin.service.PupilService;
+import ru.evlitvin.service.SchoolService;
+import ru.evlitvin.service.SchoolVersionIncrementer;
+import ru.evlitvin.service.TeacherService;
+import ru.evlitvin.util.batch.ChunkedBatchExecutor;
+import ru.evlitvin.util.export.JsonExportWriter;
+import ru.evlitvin.util.mapper.PupilMapperImpl;
+import ru.evlitvin.util.mapper.SchoolMapperImpl;
+import ru.evlitvin.util.mapper.TeacherMapperImpl;
+
+import javax.sql.DataSource;
+import java.util.Properties;
+
+@Configuration
+@EnableJpaRepositories(basePackages = "ru.evlitvin.repository")
+@EnableTransactionManagement
+@Import({PupilService.class, TeacherService.class, SchoolService.class, SchoolVersionIncrementer.class, PupilMapperImpl.class,
+        TeacherMapperImpl.class, SchoolMapperImpl.class, JsonExportWriter.class, ChunkedBatchExecutor.class})
+public class BenchmarkConfig {
+
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("benchmark-pool");
+        config.setJdbcUrl("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(Runtime.getRuntime().availableProcessors());
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+        em.setDataSource(dataSource);
+        em.setPackagesToScan("ru.evlitvin.entity");
+        em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Properties properties = new Properties();
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        properties.put("hibernate.cache.use_second_level_cache", "false");
+        properties.put("hibernate.jdbc.batch_size", "50");
+        properties.put("hibernate.order_inserts", "true");
+        em.setJpaProperties(properties);
+        return em;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
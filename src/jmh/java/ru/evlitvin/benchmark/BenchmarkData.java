@@ -0,0 +1,43 @@
+package ru.evlitvin.benchmark;
+
+import ru.evlitvin.dto.SchoolDTO;
+import ru.evlitvin.dto.TeacherDTO;
+import ru.evlitvin.entity.Pupil;
+import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static School school(long id, int teachers, int pupilsPerTeacher) {
+        School school = new School(id, "School # " + id, "School # " + id + " address");
+        List<Teacher> teacherList = new ArrayList<>(teachers);
+        long pupilId = 1;
+        for (int i = 1; i <= teachers; i++) {
+            Teacher teacher = new Teacher((long) i, "Teacher" + i, "Teacherov" + i, school);
+            List<Pupil> pupils = new ArrayList<>(pupilsPerTeacher);
+            for (int j = 0; j < pupilsPerTeacher; j++, pupilId++) {
+                pupils.add(new Pupil(pupilId, "Pupil" + pupilId, "Pupilov" + pupilId));
+            }
+            teacher.setPupils(pupils);
+            teacherList.add(teacher);
+        }
+        school.setTeachers(teacherList);
+        return school;
+    }
+
+    static SchoolDTO schoolDTO(long id, int teachers) {
+        SchoolDTO school = new SchoolDTO(id, "School # " + id, "School # " + id + " address");
+        List<TeacherDTO> teacherList = new ArrayList<>(teachers);
+        for (int i = 1; i <= teachers; i++) {
+            teacherList.add(new TeacherDTO((long) i, "Teacher" + i, "Teacherov" + i, id));
+        }
+        school.setTeachers(teacherList);
+        return school;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.evlitvin.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import ru.evlitvin.util.datasource.ConnectionLimitingDataSource;
+import ru.evlitvin.util.execution.ExecutionMode;
+import ru.evlitvin.util.execution.VirtualThreads;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExecutionModeBenchmark {
+
+    private static final int CONTAINER_THREADS = 200;
+
+    private static final int POOL_SIZE = 10;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"1000"})
+    private int concurrentRequests;
+
+    @Param({"50"})
+    private int clientLatencyMillis;
+
+    @Param({"1"})
+    private int dbLatencyMillis;
+
+    private HikariDataSource pool;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:execution-mode;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(POOL_SIZE);
+        pool = new HikariDataSource(config);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR 'java.lang.Thread.sleep(long)'");
+        }
+        dataSource = new ConnectionLimitingDataSource(pool, POOL_SIZE, TimeUnit.MINUTES.toMillis(1));
+        executor = ExecutionMode.from(mode) == ExecutionMode.VIRTUAL
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(CONTAINER_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public int serveBurst() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            responses.add(executor.submit(this::handleRequest));
+        }
+        int served = 0;
+        for (Future<Integer> response : responses) {
+            served += response.get();
+        }
+        return served;
+    }
+
+    private int handleRequest() throws InterruptedException, SQLException {
+        Thread.sleep(clientLatencyMillis);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CALL SLEEP(" + dbLatencyMillis + ")");
+        }
+        return 1;
+    }
+}
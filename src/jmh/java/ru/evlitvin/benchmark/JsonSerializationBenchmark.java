@@ -0,0 +1,38 @@
+package ru.evlitvin.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import ru.evlitvin.dto.SchoolDTO;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int teachers;
+
+    private ObjectWriter schoolWriter;
+
+    private SchoolDTO school;
+
+    @Setup
+    public void setUp() {
+        schoolWriter = new ObjectMapper().writerFor(SchoolDTO.class);
+        school = BenchmarkData.schoolDTO(1L, teachers);
+    }
+
+    @Benchmark
+    public byte[] writeSchoolAsBytes() throws JsonProcessingException {
+        return schoolWriter.writeValueAsBytes(school);
+    }
+
+    @Benchmark
+    public String writeSchoolAsString() throws JsonProcessingException {
+        return schoolWriter.writeValueAsString(school);
+    }
+}
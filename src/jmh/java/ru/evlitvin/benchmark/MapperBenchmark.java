@@ -0,0 +1,89 @@
+package ru.evlitvin.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.evlitvin.dto.PupilDTO;
+import ru.evlitvin.dto.SchoolDTO;
+import ru.evlitvin.dto.TeacherDTO;
+import ru.evlitvin.entity.Pupil;
+import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
+import ru.evlitvin.util.mapper.PupilMapper;
+import ru.evlitvin.util.mapper.PupilMapperImpl;
+import ru.evlitvin.util.mapper.SchoolMapper;
+import ru.evlitvin.util.mapper.SchoolMapperImpl;
+import ru.evlitvin.util.mapper.TeacherMapper;
+import ru.evlitvin.util.mapper.TeacherMapperImpl;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapperBenchmark {
+
+    @Param({"10", "100"})
+    private int teachers;
+
+    private final PupilMapper pupilMapper = new PupilMapperImpl();
+
+    private final TeacherMapper teacherMapper = new TeacherMapperImpl();
+
+    private final SchoolMapper schoolMapper = new SchoolMapperImpl();
+
+    private School school;
+
+    private SchoolDTO schoolDTO;
+
+    private Teacher teacher;
+
+    private TeacherDTO teacherDTO;
+
+    private Pupil pupil;
+
+    private PupilDTO pupilDTO;
+
+    @Setup
+    public void setUp() {
+        school = BenchmarkData.school(1L, teachers, 10);
+        schoolDTO = BenchmarkData.schoolDTO(1L, teachers);
+        teacher = school.getTeachers().get(0);
+        teacherDTO = schoolDTO.getTeachers().get(0);
+        pupil = teacher.getPupils().get(0);
+        pupilDTO = new PupilDTO(pupil.getId(), pupil.getFirstName(), pupil.getLastName());
+    }
+
+    @Benchmark
+    public PupilDTO pupilToDTO() {
+        return pupilMapper.toPupilDTO(pupil);
+    }
+
+    @Benchmark
+    public Pupil pupilFromDTO() {
+        return pupilMapper.toPupil(pupilDTO);
+    }
+
+    @Benchmark
+    public TeacherDTO teacherToDTO() {
+        return teacherMapper.toTeacherDTO(teacher);
+    }
+
+    @Benchmark
+    public Teacher teacherFromDTO() {
+        return teacherMapper.toTeacher(teacherDTO);
+    }
+
+    @Benchmark
+    public SchoolDTO schoolToDTO() {
+        return schoolMapper.toSchoolDTO(school);
+    }
+
+    @Benchmark
+    public SchoolDTO schoolToSummaryDTO() {
+        return schoolMapper.toSchoolSummaryDTO(school);
+    }
+
+    @Benchmark
+    public School schoolFromDTO() {
+        return schoolMapper.toSchool(schoolDTO);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.evlitvin.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.evlitvin.dto.PageDTO;
+import ru.evlitvin.dto.PupilDTO;
+import ru.evlitvin.dto.SchoolDTO;
+import ru.evlitvin.dto.TeacherDTO;
+import ru.evlitvin.entity.Pupil;
+import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
+import ru.evlitvin.repository.PupilRepository;
+import ru.evlitvin.repository.SchoolRepository;
+import ru.evlitvin.repository.TeacherRepository;
+import ru.evlitvin.service.PupilService;
+import ru.evlitvin.service.SchoolService;
+import ru.evlitvin.service.TeacherService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ServiceBenchmark {
+
+    private static final int SCHOOLS = 20;
+
+    private static final int TEACHERS_PER_SCHOOL = 25;
+
+    private static final int PUPILS_PER_TEACHER = 20;
+
+    private AnnotationConfigApplicationContext context;
+
+    private PupilService pupilService;
+
+    private TeacherService teacherService;
+
+    private SchoolService schoolService;
+
+    private long[] pupilIds;
+
+    private long[] teacherIds;
+
+    private long[] schoolIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        pupilService = context.getBean(PupilService.class);
+        teacherService = context.getBean(TeacherService.class);
+        schoolService = context.getBean(SchoolService.class);
+        seed(context.getBean(SchoolRepository.class), context.getBean(TeacherRepository.class),
+                context.getBean(PupilRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<PupilDTO> getPupilById() {
+        return pupilService.getPupilById(randomId(pupilIds));
+    }
+
+    @Benchmark
+    public Optional<PupilDTO> getMissingPupilById() {
+        return pupilService.getPupilById(-randomId(pupilIds));
+    }
+
+    @Benchmark
+    public Optional<TeacherDTO> getTeacherById() {
+        return teacherService.getTeacherById(randomId(teacherIds));
+    }
+
+    @Benchmark
+    public Optional<SchoolDTO> getSchoolById() {
+        return schoolService.getSchoolById(randomId(schoolIds));
+    }
+
+    @Benchmark
+    public PageDTO<PupilDTO> getPupilPage() {
+        return pupilService.getPupilPage(null, 100);
+    }
+
+    @Benchmark
+    public PageDTO<TeacherDTO> getTeacherPage() {
+        return teacherService.getTeacherPage(null, 100);
+    }
+
+    @Benchmark
+    public PageDTO<SchoolDTO> getSchoolPage() {
+        return schoolService.getSchoolPage(null, 10);
+    }
+
+    private static long randomId(long[] ids) {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private void seed(SchoolRepository schoolRepository, TeacherRepository teacherRepository,
+                      PupilRepository pupilRepository) {
+        List<Pupil> pupils = new ArrayList<>();
+        for (int i = 0; i < SCHOOLS * TEACHERS_PER_SCHOOL * PUPILS_PER_TEACHER; i++) {
+            pupils.add(new Pupil(null, "Pupil" + i, "Pupilov" + i));
+        }
+        pupilRepository.saveAll(pupils);
+
+        List<School> schools = new ArrayList<>();
+        for (int i = 0; i < SCHOOLS; i++) {
+            schools.add(new School(null, "School # " + i, "School # " + i + " address"));
+        }
+        schoolRepository.saveAll(schools);
+
+        List<Teacher> teachers = new ArrayList<>();
+        int pupilIndex = 0;
+        for (School school : schools) {
+            for (int i = 0; i < TEACHERS_PER_SCHOOL; i++) {
+                Teacher teacher = new Teacher(null, "Teacher" + teachers.size(), "Teacherov" + teachers.size(), school);
+                teacher.setPupils(new ArrayList<>(pupils.subList(pupilIndex, pupilIndex + PUPILS_PER_TEACHER)));
+                pupilIndex += PUPILS_PER_TEACHER;
+                teachers.add(teacher);
+            }
+        }
+        teacherRepository.saveAll(teachers);
+
+        pupilIds = pupils.stream().mapToLong(Pupil::getId).toArray();
+        teacherIds = teachers.stream().mapToLong(Teacher::getId).toArray();
+        schoolIds = schools.stream().mapToLong(School::getId).toArray();
+    }
+}
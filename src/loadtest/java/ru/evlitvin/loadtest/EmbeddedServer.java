@@ -0,0 +1,39 @@
+package ru.evlitvin.loadtest;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.web.SpringServletContainerInitializer;
+import ru.evlitvin.config.AppInitializer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+final class EmbeddedServer implements AutoCloseable {
+
+    private final Tomcat tomcat;
+
+    EmbeddedServer(Path workDir, int maxThreads) throws IOException {
+        Path baseDir = Files.createDirectories(workDir.resolve("tomcat"));
+        Path docBase = Files.createDirectories(workDir.resolve("webapp"));
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("maxThreads", Integer.toString(maxThreads));
+        Context context = tomcat.addContext("", docBase.toString());
+        context.addServletContainerInitializer(new SpringServletContainerInitializer(), Set.of(AppInitializer.class));
+    }
+
+    int start() throws LifecycleException {
+        tomcat.start();
+        return tomcat.getConnector().getLocalPort();
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
@@ -0,0 +1,191 @@
+package ru.evlitvin.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import ru.evlitvin.util.pagination.Cursor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class LoadGenerator {
+
+    private static final String[] RESOURCES = {"pupil", "teacher", "school"};
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LoadTestSettings settings;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Operation[] schedule;
+    private final Map<String, long[]> ids = new HashMap<>();
+
+    private volatile boolean measuring;
+    private volatile boolean running;
+
+    LoadGenerator(LoadTestSettings settings, int port) {
+        this.settings = settings;
+        this.baseUrl = "http://localhost:" + port + "/app/api/v1/";
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+        List<Operation> weighted = new ArrayList<>();
+        settings.getMix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.schedule = weighted.toArray(new Operation[0]);
+    }
+
+    void seed() throws IOException, InterruptedException {
+        int schools = Math.max(1, settings.getSeedPupils() / 200);
+        int teachers = Math.max(1, settings.getSeedPupils() / 20);
+        List<Map<String, Object>> schoolBodies = new ArrayList<>();
+        for (int i = 0; i < schools; i++) {
+            schoolBodies.add(Map.of("schoolName", "School # " + i, "address", "Street " + i));
+        }
+        ids.put("school", createBatch("school", schoolBodies));
+
+        List<Map<String, Object>> teacherBodies = new ArrayList<>();
+        for (int i = 0; i < teachers; i++) {
+            teacherBodies.add(Map.of("firstName", "Teacher" + i, "lastName", "Teacherov" + i,
+                    "schoolId", ids.get("school")[i % schools]));
+        }
+        ids.put("teacher", createBatch("teacher", teacherBodies));
+
+        List<Map<String, Object>> pupilBodies = new ArrayList<>();
+        for (int i = 0; i < settings.getSeedPupils(); i++) {
+            pupilBodies.add(Map.of("firstName", "Pupil" + i, "lastName", "Pupilov" + i));
+        }
+        ids.put("pupil", createBatch("pupil", pupilBodies));
+    }
+
+    Map<Operation, Histogram> run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(settings.getThreads());
+        running = true;
+        for (int i = 0; i < settings.getThreads(); i++) {
+            workers.execute(this::work);
+        }
+        Thread.sleep(settings.getWarmup().toMillis());
+        recorders.values().forEach(Recorder::reset);
+        measuring = true;
+        Thread.sleep(settings.getDuration().toMillis());
+        measuring = false;
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+        return histograms;
+    }
+
+    Map<Operation, Long> getErrors() {
+        Map<Operation, Long> result = new EnumMap<>(Operation.class);
+        errors.forEach((operation, count) -> result.put(operation, count.sum()));
+        return result;
+    }
+
+    private void work() {
+        while (running) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            String resource = RESOURCES[random.nextInt(RESOURCES.length)];
+            HttpRequest request = buildRequest(operation, resource, random);
+            long start = System.nanoTime();
+            boolean failed;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            recorders.get(operation).recordValue(Math.min(elapsedMicros, HIGHEST_TRACKABLE_MICROS));
+            if (failed && measuring) {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(Operation operation, String resource, ThreadLocalRandom random) {
+        long id = randomId(resource, random);
+        return switch (operation) {
+            case GET -> HttpRequest.newBuilder(URI.create(baseUrl + resource + "/" + id)).GET().build();
+            case ALL -> HttpRequest.newBuilder(URI.create(baseUrl + resource + "/all?limit=50&after="
+                    + Cursor.encode(Math.max(0, id - 1)))).GET().build();
+            case POST -> jsonRequest(URI.create(baseUrl + resource), "POST", newBody(resource, random));
+            case PUT -> jsonRequest(URI.create(baseUrl + resource + "/update/" + id), "PUT", updateBody(resource, random));
+        };
+    }
+
+    private Map<String, Object> newBody(String resource, ThreadLocalRandom random) {
+        int n = random.nextInt(1_000_000);
+        return switch (resource) {
+            case "school" -> Map.of("schoolName", "School " + n, "address", "Street " + n);
+            case "teacher" -> Map.of("firstName", "Teacher" + n, "lastName", "Teacherov" + n,
+                    "schoolId", randomId("school", random));
+            default -> Map.of("firstName", "Pupil" + n, "lastName", "Pupilov" + n);
+        };
+    }
+
+    private Map<String, Object> updateBody(String resource, ThreadLocalRandom random) {
+        int n = random.nextInt(1_000_000);
+        return "school".equals(resource) ? Map.of("address", "Street " + n) : Map.of("lastName", "Updated" + n);
+    }
+
+    private long randomId(String resource, ThreadLocalRandom random) {
+        long[] resourceIds = ids.get(resource);
+        return resourceIds[random.nextInt(resourceIds.length)];
+    }
+
+    private HttpRequest jsonRequest(URI uri, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private long[] createBatch(String resource, List<Map<String, Object>> bodies) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(jsonRequest(URI.create(baseUrl + resource + "/batch"), "POST", bodies),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding " + resource + " failed with HTTP " + response.statusCode());
+        }
+        List<Map<String, Object>> results = objectMapper.readValue(response.body(), new TypeReference<>() {});
+        return results.stream()
+                .filter(result -> "CREATED".equals(result.get("status")))
+                .mapToLong(result -> ((Number) result.get("id")).longValue())
+                .toArray();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.evlitvin.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+final class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50.0, 95.0, 99.0, 99.9};
+    private static final String[] PERCENTILE_KEYS = {"p50", "p95", "p99", "p999"};
+    private static final String TOTAL = "total";
+
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+    private final Map<String, Long> errors = new TreeMap<>();
+    private final double durationSeconds;
+
+    LoadTestReport(Map<Operation, Histogram> operationHistograms, Map<Operation, Long> operationErrors, double durationSeconds) {
+        this.durationSeconds = durationSeconds;
+        Histogram total = null;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : new EnumMap<>(operationHistograms).entrySet()) {
+            histograms.put(entry.getKey().getKey(), entry.getValue());
+            long operationErrorCount = operationErrors.getOrDefault(entry.getKey(), 0L);
+            errors.put(entry.getKey().getKey(), operationErrorCount);
+            totalErrors += operationErrorCount;
+            if (total == null) {
+                total = entry.getValue().copy();
+            } else {
+                total.add(entry.getValue());
+            }
+        }
+        histograms.put(TOTAL, total);
+        errors.put(TOTAL, totalErrors);
+    }
+
+    Properties toProperties() {
+        Properties properties = new Properties();
+        histograms.forEach((name, histogram) -> {
+            properties.setProperty(name + ".count", Long.toString(histogram.getTotalCount()));
+            properties.setProperty(name + ".errors", Long.toString(errors.get(name)));
+            properties.setProperty(name + ".throughput", format(histogram.getTotalCount() / durationSeconds));
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                properties.setProperty(name + "." + PERCENTILE_KEYS[i] + "-micros",
+                        Long.toString(histogram.getValueAtPercentile(PERCENTILES[i])));
+            }
+        });
+        return properties;
+    }
+
+    String summary() {
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT, "%-6s %10s %8s %12s %10s %10s %10s %10s%n",
+                "op", "requests", "errors", "req/s", "p50 us", "p95 us", "p99 us", "p99.9 us"));
+        histograms.forEach((name, histogram) -> summary.append(String.format(Locale.ROOT,
+                "%-6s %10d %8d %12.1f %10d %10d %10d %10d%n",
+                name, histogram.getTotalCount(), errors.get(name), histogram.getTotalCount() / durationSeconds,
+                histogram.getValueAtPercentile(50.0), histogram.getValueAtPercentile(95.0),
+                histogram.getValueAtPercentile(99.0), histogram.getValueAtPercentile(99.9))));
+        return summary.toString();
+    }
+
+    List<String> regressions(Properties baseline, double tolerance, double maxErrorRate) {
+        List<String> regressions = new ArrayList<>();
+        histograms.forEach((name, histogram) -> {
+            long count = histogram.getTotalCount();
+            long errorCount = errors.get(name);
+            if (count > 0 && (double) errorCount / count > maxErrorRate) {
+                regressions.add(String.format(Locale.ROOT, "%s error rate %.4f exceeds %.4f",
+                        name, (double) errorCount / count, maxErrorRate));
+            }
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                String key = name + "." + PERCENTILE_KEYS[i] + "-micros";
+                String expected = baseline.getProperty(key);
+                long actual = histogram.getValueAtPercentile(PERCENTILES[i]);
+                if (expected != null && actual > Long.parseLong(expected) * (1 + tolerance)) {
+                    regressions.add(key + " " + actual + " exceeds baseline " + expected);
+                }
+            }
+            String expectedThroughput = baseline.getProperty(name + ".throughput");
+            double throughput = count / durationSeconds;
+            if (expectedThroughput != null && throughput < Double.parseDouble(expectedThroughput) * (1 - tolerance)) {
+                regressions.add(name + ".throughput " + format(throughput) + " below baseline " + expectedThroughput);
+            }
+        });
+        return regressions;
+    }
+
+    static Properties load(Path path) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    static void store(Properties properties, Path path, String comment) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.evlitvin.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        if ("h2".equals(settings.getDb())) {
+            useInMemoryDatabase();
+        }
+        System.setProperty("web.execution-mode", settings.getExecutionMode());
+
+        LoadTestReport report;
+        try (EmbeddedServer server = new EmbeddedServer(settings.getWorkDir(), settings.getServerThreads())) {
+            int port = server.start();
+            LoadGenerator generator = new LoadGenerator(settings, port);
+            generator.seed();
+            System.out.printf("Running %s with %d threads against %s execution (%d server threads): %ds warmup, %ds measurement%n",
+                    settings.getMix(), settings.getThreads(), settings.getExecutionMode(), settings.getServerThreads(),
+                    settings.getWarmup().toSeconds(), settings.getDuration().toSeconds());
+            Map<Operation, Histogram> histograms = generator.run();
+            report = new LoadTestReport(histograms, generator.getErrors(), settings.getDuration().toMillis() / 1000.0);
+        }
+
+        System.out.print(report.summary());
+        Properties result = report.toProperties();
+        LoadTestReport.store(result, settings.getResult(), "Load test result");
+        if (settings.isUpdateBaseline()) {
+            LoadTestReport.store(result, settings.getBaseline(), "Load test baseline");
+            System.out.println("Baseline updated: " + settings.getBaseline());
+            return;
+        }
+
+        Properties baseline = LoadTestReport.load(settings.getBaseline());
+        if (baseline.isEmpty()) {
+            System.out.println("No baseline found at " + settings.getBaseline()
+                    + ", skipping regression check; record one for this machine with -Dloadtest.update-baseline=true");
+            return;
+        }
+        List<String> regressions = report.regressions(baseline, settings.getTolerance(), settings.getMaxErrorRate());
+        if (!regressions.isEmpty()) {
+            regressions.forEach(regression -> System.err.println("REGRESSION: " + regression));
+            System.exit(1);
+        }
+        System.out.println("No regressions against " + settings.getBaseline());
+    }
+
+    private static void useInMemoryDatabase() {
+        System.setProperty("jdbc.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        System.setProperty("jdbc.driver", "org.h2.Driver");
+        System.setProperty("jdbc.username", "sa");
+        System.setProperty("jdbc.password", "");
+        System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        System.setProperty("liquibase.enabled", "false");
+    }
+}
@@ -0,0 +1,119 @@
+package ru.evlitvin.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+final class LoadTestSettings {
+
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Operation, Integer> mix;
+    private final String db;
+    private final String executionMode;
+    private final int serverThreads;
+    private final int seedPupils;
+    private final double tolerance;
+    private final double maxErrorRate;
+    private final boolean updateBaseline;
+    private final Path baseline;
+    private final Path result;
+    private final Path workDir;
+
+    private LoadTestSettings() {
+        threads = Integer.getInteger("loadtest.threads", 8);
+        warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10L));
+        duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30L));
+        mix = parseMix(System.getProperty("loadtest.mix", "get:70,all:10,post:10,put:10"));
+        db = System.getProperty("loadtest.db", "h2");
+        executionMode = System.getProperty("loadtest.execution-mode", "platform");
+        serverThreads = Integer.getInteger("loadtest.server-threads", 200);
+        seedPupils = Integer.getInteger("loadtest.seed-pupils", 2000);
+        tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25"));
+        maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.001"));
+        updateBaseline = Boolean.getBoolean("loadtest.update-baseline");
+        baseline = Path.of(System.getProperty("loadtest.baseline", "loadtest-baseline.properties"));
+        result = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.properties"));
+        workDir = Path.of(System.getProperty("loadtest.work-dir", "target/loadtest"));
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings();
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must contain at least one positive weight");
+        }
+        return mix;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    Duration getWarmup() {
+        return warmup;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    String getDb() {
+        return db;
+    }
+
+    String getExecutionMode() {
+        return executionMode;
+    }
+
+    int getServerThreads() {
+        return serverThreads;
+    }
+
+    int getSeedPupils() {
+        return seedPupils;
+    }
+
+    double getTolerance() {
+        return tolerance;
+    }
+
+    double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    boolean isUpdateBaseline() {
+        return updateBaseline;
+    }
+
+    Path getBaseline() {
+        return baseline;
+    }
+
+    Path getResult() {
+        return result;
+    }
+
+    Path getWorkDir() {
+        return workDir;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.evlitvin.loadtest;
+
+import java.util.Arrays;
+
+enum Operation {
+
+    GET("get"),
+    ALL("all"),
+    POST("post"),
+    PUT("put");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load test operation: " + key));
+    }
+}
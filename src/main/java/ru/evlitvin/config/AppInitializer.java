@@ -1,11 +1,16 @@
 package ru.evlitvin.config;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterRegistration;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletRegistration;
 import org.springframework.web.WebApplicationInitializer;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.DispatcherServlet;
 
+import java.util.EnumSet;
+
 public class AppInitializer implements WebApplicationInitializer {
 
     @Override
@@ -16,6 +21,17 @@ public class AppInitializer implements WebApplicationInitializer {
 
         ServletRegistration.Dynamic servlet = servletContext.addServlet("app", new DispatcherServlet(ctx));
         servlet.setLoadOnStartup(1);
+        servlet.setAsyncSupported(true);
         servlet.addMapping("/app/*");
+
+        FilterRegistration.Dynamic compressionFilter = servletContext.addFilter("compressionFilter",
+                new DelegatingFilterProxy("compressionFilter", ctx));
+        compressionFilter.setAsyncSupported(true);
+        compressionFilter.addMappingForServletNames(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC), false, "app");
+
+        FilterRegistration.Dynamic sqlStatisticsFilter = servletContext.addFilter("sqlStatisticsFilter",
+                new DelegatingFilterProxy("sqlStatisticsFilter", ctx));
+        sqlStatisticsFilter.setAsyncSupported(true);
+        sqlStatisticsFilter.addMappingForServletNames(EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC), false, "app");
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ru.evlitvin.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PUPILS = "pupils";
+    public static final String TEACHERS = "teachers";
+    public static final String SCHOOLS = "schools";
+
+    private final Environment env;
+
+    public CacheConfig(Environment env) {
+        this.env = env;
+    }
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        for (String cacheName : new String[]{PUPILS, TEACHERS, SCHOOLS}) {
+            cacheManager.registerCustomCache(cacheName, Caffeine.newBuilder()
+                    .maximumSize(env.getProperty("cache." + cacheName + ".maximum-size", Long.class, 10000L))
+                    .expireAfterWrite(Duration.ofSeconds(env.getProperty("cache." + cacheName + ".ttl-seconds", Long.class, 600L)))
+                    .recordStats()
+                    .build());
+        }
+        return cacheManager;
+    }
+}
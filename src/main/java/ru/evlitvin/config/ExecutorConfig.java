@@ -0,0 +1,35 @@
+package ru.evlitvin.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import ru.evlitvin.util.execution.AsyncDbExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    private final Environment env;
+
+    public ExecutorConfig(Environment env) {
+        this.env = env;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor dbTaskExecutor() {
+        int poolSize = env.getProperty("db.executor.pool-size", Integer.class, 10);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("db-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(env.getProperty("db.executor.queue-capacity", Integer.class, 200));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    @Bean
+    public AsyncDbExecutor asyncDbExecutor(ThreadPoolTaskExecutor dbTaskExecutor) {
+        return new AsyncDbExecutor(dbTaskExecutor, env.getProperty("db.executor.timeout-ms", Long.class, 5000L));
+    }
+}
@@ -1,22 +1,42 @@
 package ru.evlitvin.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.integration.spring.SpringLiquibase;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ru.evlitvin.util.cache.SecondLevelCacheSettings;
+import ru.evlitvin.util.datasource.ConnectionLimitingDataSource;
+import ru.evlitvin.util.datasource.ConnectionPoolMetrics;
+import ru.evlitvin.util.datasource.ReplicaDataSource;
+import ru.evlitvin.util.datasource.ReplicaPoolMetrics;
+import ru.evlitvin.util.datasource.SlowQueryLogger;
+import ru.evlitvin.util.datasource.SqlStatisticsListener;
+import ru.evlitvin.util.execution.ExecutionMode;
 
+import javax.cache.CacheManager;
 import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 
 @Configuration
 @EnableJpaRepositories(basePackages = "ru.evlitvin.repository")
 @ComponentScan(basePackages = "ru.evlitvin")
+@PropertySource("classpath:application.properties")
+@EnableTransactionManagement
 public class JpaConfig {
 
     private final Environment env;
@@ -26,16 +46,70 @@ public class JpaConfig {
     }
 
     @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics(env.getProperty("jdbc.pool.name", "school-pool"));
+    }
+
+    @Bean(destroyMethod = "close")
+    public DataSource primaryDataSource() {
+        return pooledDataSource(env.getProperty("jdbc.pool.name", "school-pool"), env.getRequiredProperty("jdbc.url"),
+                env.getProperty("jdbc.username"), env.getProperty("jdbc.password"),
+                env.getProperty("jdbc.pool.maximum-size", Integer.class, 10), connectionPoolMetrics());
+    }
+
+    @Bean
+    public ReplicaPoolMetrics replicaPoolMetrics() {
+        return new ReplicaPoolMetrics(replicaUrls().keySet());
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource() {
+        int maximumSize = env.getProperty("jdbc.replicas.pool.maximum-size", Integer.class,
+                env.getProperty("jdbc.pool.maximum-size", Integer.class, 10));
+        ReplicaPoolMetrics replicaPoolMetrics = replicaPoolMetrics();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicaUrls().forEach((name, url) -> replicas.put(name, pooledDataSource(name, url,
+                env.getProperty("jdbc.replicas.username", env.getProperty("jdbc.username", "")),
+                env.getProperty("jdbc.replicas.password", env.getProperty("jdbc.password", "")),
+                maximumSize, replicaPoolMetrics.get(name))));
+        ReplicaDataSource replicaDataSource = new ReplicaDataSource(primaryDataSource(), replicas,
+                env.getProperty("jdbc.replicas.lag-query"),
+                env.getProperty("jdbc.replicas.max-lag-ms", Long.class, 1000L),
+                env.getProperty("jdbc.replicas.validation-timeout-seconds", Integer.class, 2));
+        replicaDataSource.start(env.getProperty("jdbc.replicas.health-check-interval-ms", Long.class, 5000L));
+        return replicaDataSource;
+    }
+
+    // Read-only transactions go to a healthy replica and may lag by up to jdbc.replicas.max-lag-ms.
+    // Reads that populate the entity caches or produce ETags are pinned to the primary with ReplicaDataSource.readFromPrimary.
+    @Bean
+    @Primary
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("org.postgresql.Driver");
-        dataSource.setUrl(env.getProperty("jdbc:postgresql://localhost:5432/aston-dev-test"));
-        dataSource.setUsername(env.getProperty("postgres"));
-        dataSource.setPassword(env.getProperty("password"));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource());
+        ReplicaDataSource replicaDataSource = replicaDataSource();
+        if (replicaDataSource.hasReplicas()) {
+            dataSource.setReadOnlyDataSource(replicaDataSource);
+        }
         return dataSource;
     }
 
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return new SecondLevelCacheSettings(env).createCacheManager();
+    }
+
+    @Bean
+    public SpringLiquibase liquibase() {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(primaryDataSource());
+        liquibase.setChangeLog(env.getProperty("liquibase.change-log", "classpath:db.changelog/db.changelog-master.yaml"));
+        liquibase.setContexts(env.getProperty("liquibase.contexts"));
+        liquibase.setShouldRun(env.getProperty("liquibase.enabled", Boolean.class, true));
+        return liquibase;
+    }
+
     @Bean
+    @DependsOn("liquibase")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource());
@@ -55,12 +129,66 @@ public class JpaConfig {
         return transactionManager;
     }
 
+    private Map<String, String> replicaUrls() {
+        String poolName = env.getProperty("jdbc.pool.name", "school-pool");
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String url : env.getProperty("jdbc.replicas.urls", String[].class, new String[0])) {
+            if (!url.isBlank()) {
+                urls.put(poolName + "-replica-" + (urls.size() + 1), url.trim());
+            }
+        }
+        return urls;
+    }
+
+    private DataSource pooledDataSource(String poolName, String url, String username, String password, int maximumSize,
+                                        ConnectionPoolMetrics metrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(env.getRequiredProperty("jdbc.driver"));
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMinimumIdle(env.getProperty("jdbc.pool.minimum-idle", Integer.class, 2));
+        config.setMaximumPoolSize(maximumSize);
+        config.setConnectionTimeout(env.getProperty("jdbc.pool.connection-timeout-ms", Long.class, 30000L));
+        config.setIdleTimeout(env.getProperty("jdbc.pool.idle-timeout-ms", Long.class, 600000L));
+        config.setMaxLifetime(env.getProperty("jdbc.pool.max-lifetime-ms", Long.class, 1800000L));
+        config.setValidationTimeout(env.getProperty("jdbc.pool.validation-timeout-ms", Long.class, 5000L));
+        config.setLeakDetectionThreshold(env.getProperty("jdbc.pool.leak-detection-threshold-ms", Long.class, 0L));
+        String testQuery = env.getProperty("jdbc.pool.connection-test-query");
+        if (testQuery != null && !testQuery.isBlank()) {
+            config.setConnectionTestQuery(testQuery);
+        }
+        config.setRegisterMbeans(true);
+        if (metrics != null) {
+            config.setMetricsTrackerFactory(metrics);
+        }
+        boolean countReadRows = env.getProperty("sql.stats.debug-headers", Boolean.class, false)
+                || env.getProperty("sql.stats.count-read-rows", Boolean.class, false);
+        DataSource dataSource = SqlStatisticsListener.proxy(new HikariDataSource(config), config.getPoolName(),
+                countReadRows, new SlowQueryLogger(env));
+        ExecutionMode executionMode = ExecutionMode.from(env.getProperty("web.execution-mode", "platform"));
+        int borrowLimit = env.getProperty("jdbc.pool.borrow-limit", Integer.class,
+                executionMode == ExecutionMode.VIRTUAL ? config.getMaximumPoolSize() : 0);
+        if (borrowLimit > 0) {
+            return new ConnectionLimitingDataSource(dataSource, borrowLimit, config.getConnectionTimeout());
+        }
+        return dataSource;
+    }
+
     private Properties hibernateProperties() {
         Properties properties = new Properties();
         properties.put("hibernate.dialect", env.getProperty("hibernate.dialect"));
-        properties.put("hibernate.hbm2ddl.auto", env.getProperty("hibernate.hbm2ddl.auto"));
+        properties.put("hibernate.hbm2ddl.auto", env.getProperty("hibernate.hbm2ddl.auto", "none"));
         properties.put("hibernate.show_sql", env.getProperty("hibernate.show_sql"));
         properties.put("hibernate.format_sql", env.getProperty("hibernate.format_sql"));
+        properties.put("hibernate.id.optimizer.pooled.preferred", env.getProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo"));
+        properties.put("hibernate.jdbc.batch_size", env.getProperty("hibernate.jdbc.batch_size", "50"));
+        properties.put("hibernate.order_inserts", env.getProperty("hibernate.order_inserts", "true"));
+        properties.put("hibernate.order_updates", env.getProperty("hibernate.order_updates", "true"));
+        properties.put("hibernate.jdbc.batch_versioned_data", env.getProperty("hibernate.jdbc.batch_versioned_data", "true"));
+        properties.put("hibernate.generate_statistics", env.getProperty("hibernate.generate_statistics", "false"));
+        new SecondLevelCacheSettings(env).applyTo(properties, hibernateCacheManager());
         return properties;
     }
 }
@@ -0,0 +1,55 @@
+package ru.evlitvin.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.evlitvin.util.datasource.ConnectionPoolMetrics;
+import ru.evlitvin.util.datasource.ReplicaPoolMetrics;
+import ru.evlitvin.util.metrics.RepositoryMetricsListener;
+import ru.evlitvin.util.metrics.RepositoryMetricsPostProcessor;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetricsPostProcessor(new RepositoryMetricsListener(meterRegistry));
+    }
+
+    @Bean(destroyMethod = "close")
+    public PrometheusMeterRegistry meterRegistry(ObjectProvider<ConnectionPoolMetrics> connectionPoolMetrics,
+                                                 ObjectProvider<ReplicaPoolMetrics> replicaPoolMetrics,
+                                                 ObjectProvider<CacheManager> cacheManager) {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmGcMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+        new UptimeMetrics().bindTo(registry);
+        connectionPoolMetrics.ifAvailable(metrics -> metrics.bindTo(registry));
+        replicaPoolMetrics.ifAvailable(metrics -> metrics.bindTo(registry));
+        cacheManager.ifAvailable(manager -> bindCaches(manager, registry));
+        return registry;
+    }
+
+    private static void bindCaches(CacheManager cacheManager, MeterRegistry registry) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache) {
+                Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CaffeineCacheMetrics.monitor(registry, nativeCache, cacheName);
+            }
+        }
+    }
+}
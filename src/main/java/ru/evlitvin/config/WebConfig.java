@@ -1,14 +1,65 @@
 package ru.evlitvin.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.EnableWebMvc;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.DelegatingWebMvcConfiguration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import ru.evlitvin.util.datasource.SqlStatisticsCallableInterceptor;
+import ru.evlitvin.util.execution.ExecutionMode;
+import ru.evlitvin.util.execution.OffloadingHandlerAdapter;
+import ru.evlitvin.util.execution.VirtualThreads;
+import ru.evlitvin.util.http.GzipCompressionFilter;
+import ru.evlitvin.util.metrics.RequestMetricsInterceptor;
+
+import java.util.List;
 
 @Configuration
-@EnableWebMvc
 @ComponentScan(basePackages = "ru.evlitvin")
-public class WebConfig implements WebMvcConfigurer {
+public class WebConfig extends DelegatingWebMvcConfiguration {
 
-}
+    private final RequestMetricsInterceptor requestMetricsInterceptor;
+
+    private final Environment env;
+
+    private final ExecutionMode executionMode;
+
+    public WebConfig(RequestMetricsInterceptor requestMetricsInterceptor, Environment env) {
+        this.requestMetricsInterceptor = requestMetricsInterceptor;
+        this.env = env;
+        this.executionMode = ExecutionMode.from(env.getProperty("web.execution-mode", "platform"));
+    }
 
+    @Override
+    protected void addInterceptors(InterceptorRegistry registry) {
+        super.addInterceptors(registry);
+        registry.addInterceptor(requestMetricsInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Override
+    protected void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        super.configureAsyncSupport(configurer);
+        configurer.setDefaultTimeout(env.getProperty("web.async.timeout-ms", Long.class, 30000L));
+        configurer.registerCallableInterceptors(new SqlStatisticsCallableInterceptor());
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            configurer.setTaskExecutor(new TaskExecutorAdapter(VirtualThreads.newVirtualThreadPerTaskExecutor()));
+        }
+    }
+
+    @Override
+    protected RequestMappingHandlerAdapter createRequestMappingHandlerAdapter() {
+        return executionMode == ExecutionMode.VIRTUAL ? new OffloadingHandlerAdapter() : super.createRequestMappingHandlerAdapter();
+    }
+
+    @Bean
+    public GzipCompressionFilter compressionFilter() {
+        return new GzipCompressionFilter(env.getProperty("web.compression.enabled", Boolean.class, true),
+                env.getProperty("web.compression.min-size-bytes", Integer.class, 1024),
+                List.of(env.getProperty("web.compression.mime-types", String[].class,
+                        new String[]{"application/json", "application/problem+json", "application/x-ndjson", "text/plain"})));
+    }
+}
@@ -0,0 +1,199 @@
+package ru.evlitvin.dto;
+
+import java.util.Map;
+
+public class HibernateStatsDTO {
+
+    private boolean statisticsEnabled;
+    private long sessionOpenCount;
+    private long transactionCount;
+    private long prepareStatementCount;
+    private long entityLoadCount;
+    private long entityFetchCount;
+    private long entityInsertCount;
+    private long entityUpdateCount;
+    private long entityDeleteCount;
+    private long collectionLoadCount;
+    private long collectionFetchCount;
+    private long queryExecutionCount;
+    private long queryExecutionMaxTimeMillis;
+    private String queryExecutionMaxTimeQuery;
+    private long secondLevelCacheHitCount;
+    private long secondLevelCacheMissCount;
+    private double secondLevelCacheHitRatio;
+    private long queryCacheHitCount;
+    private long queryCacheMissCount;
+    private double queryCacheHitRatio;
+    private Map<String, Double> regionHitRatios;
+
+    public HibernateStatsDTO() {}
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    public long getSessionOpenCount() {
+        return sessionOpenCount;
+    }
+
+    public void setSessionOpenCount(long sessionOpenCount) {
+        this.sessionOpenCount = sessionOpenCount;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public long getPrepareStatementCount() {
+        return prepareStatementCount;
+    }
+
+    public void setPrepareStatementCount(long prepareStatementCount) {
+        this.prepareStatementCount = prepareStatementCount;
+    }
+
+    public long getEntityLoadCount() {
+        return entityLoadCount;
+    }
+
+    public void setEntityLoadCount(long entityLoadCount) {
+        this.entityLoadCount = entityLoadCount;
+    }
+
+    public long getEntityFetchCount() {
+        return entityFetchCount;
+    }
+
+    public void setEntityFetchCount(long entityFetchCount) {
+        this.entityFetchCount = entityFetchCount;
+    }
+
+    public long getEntityInsertCount() {
+        return entityInsertCount;
+    }
+
+    public void setEntityInsertCount(long entityInsertCount) {
+        this.entityInsertCount = entityInsertCount;
+    }
+
+    public long getEntityUpdateCount() {
+        return entityUpdateCount;
+    }
+
+    public void setEntityUpdateCount(long entityUpdateCount) {
+        this.entityUpdateCount = entityUpdateCount;
+    }
+
+    public long getEntityDeleteCount() {
+        return entityDeleteCount;
+    }
+
+    public void setEntityDeleteCount(long entityDeleteCount) {
+        this.entityDeleteCount = entityDeleteCount;
+    }
+
+    public long getCollectionLoadCount() {
+        return collectionLoadCount;
+    }
+
+    public void setCollectionLoadCount(long collectionLoadCount) {
+        this.collectionLoadCount = collectionLoadCount;
+    }
+
+    public long getCollectionFetchCount() {
+        return collectionFetchCount;
+    }
+
+    public void setCollectionFetchCount(long collectionFetchCount) {
+        this.collectionFetchCount = collectionFetchCount;
+    }
+
+    public long getQueryExecutionCount() {
+        return queryExecutionCount;
+    }
+
+    public void setQueryExecutionCount(long queryExecutionCount) {
+        this.queryExecutionCount = queryExecutionCount;
+    }
+
+    public long getQueryExecutionMaxTimeMillis() {
+        return queryExecutionMaxTimeMillis;
+    }
+
+    public void setQueryExecutionMaxTimeMillis(long queryExecutionMaxTimeMillis) {
+        this.queryExecutionMaxTimeMillis = queryExecutionMaxTimeMillis;
+    }
+
+    public String getQueryExecutionMaxTimeQuery() {
+        return queryExecutionMaxTimeQuery;
+    }
+
+    public void setQueryExecutionMaxTimeQuery(String queryExecutionMaxTimeQuery) {
+        this.queryExecutionMaxTimeQuery = queryExecutionMaxTimeQuery;
+    }
+
+    public long getSecondLevelCacheHitCount() {
+        return secondLevelCacheHitCount;
+    }
+
+    public void setSecondLevelCacheHitCount(long secondLevelCacheHitCount) {
+        this.secondLevelCacheHitCount = secondLevelCacheHitCount;
+    }
+
+    public long getSecondLevelCacheMissCount() {
+        return secondLevelCacheMissCount;
+    }
+
+    public void setSecondLevelCacheMissCount(long secondLevelCacheMissCount) {
+        this.secondLevelCacheMissCount = secondLevelCacheMissCount;
+    }
+
+    public double getSecondLevelCacheHitRatio() {
+        return secondLevelCacheHitRatio;
+    }
+
+    public void setSecondLevelCacheHitRatio(double secondLevelCacheHitRatio) {
+        this.secondLevelCacheHitRatio = secondLevelCacheHitRatio;
+    }
+
+    public long getQueryCacheHitCount() {
+        return queryCacheHitCount;
+    }
+
+    public void setQueryCacheHitCount(long queryCacheHitCount) {
+        this.queryCacheHitCount = queryCacheHitCount;
+    }
+
+    public long getQueryCacheMissCount() {
+        return queryCacheMissCount;
+    }
+
+    public void setQueryCacheMissCount(long queryCacheMissCount) {
+        this.queryCacheMissCount = queryCacheMissCount;
+    }
+
+    public double getQueryCacheHitRatio() {
+        return queryCacheHitRatio;
+    }
+
+    public void setQueryCacheHitRatio(double queryCacheHitRatio) {
+        this.queryCacheHitRatio = queryCacheHitRatio;
+    }
+
+    public Map<String, Double> getRegionHitRatios() {
+        return regionHitRatios;
+    }
+
+    public void setRegionHitRatios(Map<String, Double> regionHitRatios) {
+        this.regionHitRatios = regionHitRatios;
+    }
+
+}
@@ -5,6 +5,7 @@ public class PupilDTO {
     private Long id;
     private String firstName;
     private String lastName;
+    private Long version;
 
     public PupilDTO() {}
 
@@ -14,6 +15,11 @@ public class PupilDTO {
         this.lastName = lastName;
     }
 
+    public PupilDTO(Long id, String firstName, String lastName, Long version) {
+        this(id, firstName, lastName);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -38,4 +44,12 @@ public class PupilDTO {
         this.lastName = lastName;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
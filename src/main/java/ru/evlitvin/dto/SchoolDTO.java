@@ -7,6 +7,7 @@ public class SchoolDTO {
     private Long id;
     private String schoolName;
     private String address;
+    private Long version;
     private List<TeacherDTO> teachers;
 
     public SchoolDTO() {}
@@ -17,6 +18,11 @@ public class SchoolDTO {
         this.address = address;
     }
 
+    public SchoolDTO(Long id, String schoolName, String address, Long version) {
+        this(id, schoolName, address);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -49,4 +55,12 @@ public class SchoolDTO {
         this.teachers = teachers;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
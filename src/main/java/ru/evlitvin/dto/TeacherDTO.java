@@ -10,6 +10,7 @@ public class TeacherDTO {
     private String firstName;
     private String lastName;
     private Long schoolId;
+    private Long version;
     private List<Pupil> pupils;
 
     public TeacherDTO() {}
@@ -21,6 +22,11 @@ public class TeacherDTO {
         this.schoolId = schoolId;
     }
 
+    public TeacherDTO(Long id, String firstName, String lastName, Long schoolId, Long version) {
+        this(id, firstName, lastName, schoolId);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -53,4 +59,12 @@ public class TeacherDTO {
         this.schoolId = schoolId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
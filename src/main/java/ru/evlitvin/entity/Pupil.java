@@ -1,17 +1,20 @@
 package ru.evlitvin.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 import java.util.Objects;
 
 @Entity
+@Cacheable
 @Table(name = "pupil", schema = "public")
 public class Pupil {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pupil_seq")
+    @SequenceGenerator(name = "pupil_seq", sequenceName = "pupil_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "first_name")
@@ -20,6 +23,11 @@ public class Pupil {
     @Column(name = "last_name")
     private String lastName;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToMany(mappedBy = "pupils")
     private List<Teacher> teachers;
 
@@ -41,6 +49,14 @@ public class Pupil {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getFirstName() {
         return firstName;
     }
@@ -1,17 +1,21 @@
 package ru.evlitvin.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 import java.util.Objects;
 
 @Entity
+@Cacheable
 @Table(name = "school", schema = "public")
+@NamedEntityGraph(name = "School.teachers", attributeNodes = @NamedAttributeNode("teachers"))
 public class School {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "school_seq")
+    @SequenceGenerator(name = "school_seq", sequenceName = "school_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "school_name")
@@ -20,6 +24,11 @@ public class School {
     @Column(name = "address")
     private String address;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "school", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Teacher> teachers;
 
@@ -40,6 +49,14 @@ public class School {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getSchoolName() {
         return schoolName;
     }
@@ -0,0 +1,27 @@
+package ru.evlitvin.exception;
+
+public abstract class NotFoundException extends RuntimeException {
+
+    private final String resource;
+
+    private final Long id;
+
+    protected NotFoundException(String resource, Long id) {
+        super(null, null, false, false);
+        this.resource = resource;
+        this.id = id;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return "No " + resource + " found with ID: " + id;
+    }
+}
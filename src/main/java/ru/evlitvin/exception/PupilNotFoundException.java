@@ -1,8 +1,8 @@
 package ru.evlitvin.exception;
 
-public class PupilNotFoundException extends RuntimeException {
+public class PupilNotFoundException extends NotFoundException {
 
-    public PupilNotFoundException(String message) {
-        super(message);
+    public PupilNotFoundException(Long id) {
+        super("pupil", id);
     }
 }
@@ -1,8 +1,8 @@
 package ru.evlitvin.exception;
 
-public class SchoolNotFoundException extends RuntimeException {
+public class SchoolNotFoundException extends NotFoundException {
 
-    public SchoolNotFoundException(String message) {
-        super(message);
+    public SchoolNotFoundException(Long id) {
+        super("school", id);
     }
 }
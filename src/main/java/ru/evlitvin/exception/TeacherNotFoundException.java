@@ -1,8 +1,8 @@
 package ru.evlitvin.exception;
 
-public class TeacherNotFoundException extends RuntimeException {
+public class TeacherNotFoundException extends NotFoundException {
 
-    public TeacherNotFoundException(String message) {
-        super(message);
+    public TeacherNotFoundException(Long id) {
+        super("teacher", id);
     }
 }
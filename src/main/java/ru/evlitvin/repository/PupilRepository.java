@@ -1,7 +1,47 @@
 package ru.evlitvin.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.evlitvin.dto.PupilDTO;
 import ru.evlitvin.entity.Pupil;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface PupilRepository extends JpaRepository<Pupil, Long> {
+
+    @Query("select new ru.evlitvin.dto.PupilDTO(p.id, p.firstName, p.lastName, p.version) from Pupil p "
+            + "where p.id > :after order by p.id")
+    List<PupilDTO> findDTOsAfter(@Param("after") Long after, Limit limit);
+
+    @Query(value = "SELECT p.id AS \"id\", p.first_name AS \"firstName\", p.last_name AS \"lastName\", p.version AS \"version\" "
+            + "FROM pupil p, to_tsquery('simple', :prefixQuery) query "
+            + "WHERE p.search_vector @@ query OR p.last_name % :text "
+            + "ORDER BY ts_rank(p.search_vector, query) + similarity(p.last_name, :text) DESC, p.id "
+            + "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<PupilSearchHit> search(@Param("prefixQuery") String prefixQuery, @Param("text") String text,
+                                @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query("select p.version from Pupil p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Pupil p set p.firstName = coalesce(:firstName, p.firstName), p.lastName = coalesce(:lastName, p.lastName), "
+            + "p.version = p.version + 1 where p.id = :id and (:version is null or p.version = :version)")
+    int patchById(@Param("id") Long id, @Param("firstName") String firstName, @Param("lastName") String lastName,
+                  @Param("version") Long version);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select p from Pupil p order by p.id")
+    Stream<Pupil> streamAll();
 }
@@ -0,0 +1,12 @@
+package ru.evlitvin.repository;
+
+public interface PupilSearchHit {
+
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Long getVersion();
+}
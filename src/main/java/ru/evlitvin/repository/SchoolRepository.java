@@ -1,7 +1,55 @@
 package ru.evlitvin.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.evlitvin.dto.SchoolDTO;
 import ru.evlitvin.entity.School;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface SchoolRepository extends JpaRepository<School, Long> {
+
+    @EntityGraph("School.teachers")
+    Optional<School> findWithTeachersById(Long id);
+
+    @Query("select new ru.evlitvin.dto.SchoolDTO(s.id, s.schoolName, s.address, s.version) from School s "
+            + "where s.id > :after order by s.id")
+    List<SchoolDTO> findDTOsAfter(@Param("after") Long after, Limit limit);
+
+    @Query("select s.version from School s where s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update School s set s.version = s.version + 1 where s.id in :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update School s set s.version = s.version + 1 "
+            + "where s.id in (select t.school.id from Teacher t where t.id in :teacherIds)")
+    int incrementVersionsByTeacherIds(@Param("teacherIds") Collection<Long> teacherIds);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update School s set s.schoolName = coalesce(:schoolName, s.schoolName), s.address = coalesce(:address, s.address), "
+            + "s.version = s.version + 1 where s.id = :id and (:version is null or s.version = :version)")
+    int patchById(@Param("id") Long id, @Param("schoolName") String schoolName, @Param("address") String address,
+                  @Param("version") Long version);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select s from School s order by s.id")
+    Stream<School> streamAll();
 }
@@ -1,7 +1,58 @@
 package ru.evlitvin.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.evlitvin.dto.TeacherDTO;
 import ru.evlitvin.entity.Teacher;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface TeacherRepository extends JpaRepository<Teacher, Long> {
+
+    @Query("select new ru.evlitvin.dto.TeacherDTO(t.id, t.firstName, t.lastName, t.school.id, t.version) "
+            + "from Teacher t where t.id > :after order by t.id")
+    List<TeacherDTO> findDTOsAfter(@Param("after") Long after, Limit limit);
+
+    @Query("select new ru.evlitvin.dto.TeacherDTO(t.id, t.firstName, t.lastName, t.school.id, t.version) "
+            + "from Teacher t where t.school.id in :schoolIds order by t.school.id, t.id")
+    List<TeacherDTO> findDTOsBySchoolIdIn(@Param("schoolIds") Collection<Long> schoolIds);
+
+    @Query(value = "SELECT t.id AS \"id\", t.first_name AS \"firstName\", t.last_name AS \"lastName\", "
+            + "t.school_id AS \"schoolId\", t.version AS \"version\" "
+            + "FROM teacher t, to_tsquery('simple', :prefixQuery) query "
+            + "WHERE t.search_vector @@ query OR t.last_name % :text "
+            + "ORDER BY ts_rank(t.search_vector, query) + similarity(t.last_name, :text) DESC, t.id "
+            + "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<TeacherSearchHit> search(@Param("prefixQuery") String prefixQuery, @Param("text") String text,
+                                  @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query("select t.version from Teacher t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Teacher t set t.firstName = coalesce(:firstName, t.firstName), t.lastName = coalesce(:lastName, t.lastName), "
+            + "t.version = t.version + 1 where t.id = :id and (:version is null or t.version = :version)")
+    int patchById(@Param("id") Long id, @Param("firstName") String firstName, @Param("lastName") String lastName,
+                  @Param("version") Long version);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select t from Teacher t order by t.id")
+    Stream<Teacher> streamAll();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select t from Teacher t where t.school is not null order by t.school.id, t.id")
+    Stream<Teacher> streamAllOrderBySchool();
 }
@@ -0,0 +1,14 @@
+package ru.evlitvin.repository;
+
+public interface TeacherSearchHit {
+
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Long getSchoolId();
+
+    Long getVersion();
+}
@@ -0,0 +1,66 @@
+package ru.evlitvin.rest.api.v1;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.evlitvin.dto.CacheStatsDTO;
+import ru.evlitvin.dto.HibernateStatsDTO;
+import ru.evlitvin.dto.PoolStatsDTO;
+import ru.evlitvin.util.cache.EntityCacheStatistics;
+import ru.evlitvin.util.datasource.ConnectionPoolMetrics;
+import ru.evlitvin.util.datasource.ReplicaPoolMetrics;
+import ru.evlitvin.util.hibernate.HibernateStatistics;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    private final ReplicaPoolMetrics replicaPoolMetrics;
+
+    private final EntityCacheStatistics entityCacheStatistics;
+
+    private final HibernateStatistics hibernateStatistics;
+
+    public AdminController(ConnectionPoolMetrics connectionPoolMetrics, ReplicaPoolMetrics replicaPoolMetrics,
+                           EntityCacheStatistics entityCacheStatistics, HibernateStatistics hibernateStatistics) {
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.replicaPoolMetrics = replicaPoolMetrics;
+        this.entityCacheStatistics = entityCacheStatistics;
+        this.hibernateStatistics = hibernateStatistics;
+    }
+
+    @GetMapping(value = "/pool", produces = "application/json")
+    public ResponseEntity<PoolStatsDTO> getPoolStats() {
+        return ResponseEntity.ok(connectionPoolMetrics.getSnapshot());
+    }
+
+    @GetMapping(value = "/pool/replicas", produces = "application/json")
+    public ResponseEntity<List<PoolStatsDTO>> getReplicaPoolStats() {
+        return ResponseEntity.ok(replicaPoolMetrics.getSnapshots());
+    }
+
+    @GetMapping(value = "/cache", produces = "application/json")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(entityCacheStatistics.getSnapshot());
+    }
+
+    @GetMapping(value = "/hibernate", produces = "application/json")
+    public ResponseEntity<HibernateStatsDTO> getHibernateStats() {
+        if (!hibernateStatistics.isEnabled()) {
+            return ResponseEntity.ok(new HibernateStatsDTO());
+        }
+        return ResponseEntity.ok(hibernateStatistics.getSnapshot());
+    }
+
+    @DeleteMapping(value = "/hibernate")
+    public ResponseEntity<Void> resetHibernateStats() {
+        hibernateStatistics.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,13 +1,26 @@
 package ru.evlitvin.rest.api.v1;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.PupilDTO;
-import ru.evlitvin.exception.PupilNotFoundException;
 import ru.evlitvin.service.PupilService;
+import ru.evlitvin.util.datasource.SqlStatisticsFilter;
+import ru.evlitvin.util.execution.AsyncDbExecutor;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.http.EntityTags;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/pupil")
@@ -15,53 +28,115 @@ public class PupilController {
 
     private final PupilService pupilService;
 
-    public PupilController(PupilService pupilService) {
+    private final AsyncDbExecutor asyncDbExecutor;
+
+    public PupilController(PupilService pupilService, AsyncDbExecutor asyncDbExecutor) {
         this.pupilService = pupilService;
+        this.asyncDbExecutor = asyncDbExecutor;
     }
 
     @GetMapping(value = "/all", produces = "application/json")
-    public ResponseEntity<List<PupilDTO>> getAllPupils() {
-        List<PupilDTO> pupils = pupilService.getAllPupils();
+    public ResponseEntity<PageDTO<PupilDTO>> getAllPupils(@RequestParam(value = "after", required = false) String after,
+                                                         @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        PageDTO<PupilDTO> pupils = pupilService.getPupilPage(after, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(pupils);
+    }
+
+    @GetMapping(value = "/search", produces = "application/json")
+    public ResponseEntity<PageDTO<PupilDTO>> searchPupils(@RequestParam("q") String query,
+                                                          @RequestParam(value = "after", required = false) String after,
+                                                          @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        PageDTO<PupilDTO> pupils = pupilService.searchPupils(query, after, limit);
         return ResponseEntity.status(HttpStatus.OK).body(pupils);
     }
 
     @GetMapping(value = "/{id}", produces = "application/json")
-    public ResponseEntity<PupilDTO> getPupilById(@PathVariable long id) {
-        try {
-            pupilService.getPupilById(id);
-        } catch (PupilNotFoundException e) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<PupilDTO> getPupilById(@PathVariable long id, WebRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = pupilService.getPupilETag(id);
+            if (eTag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (EntityTags.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
         }
-        return ResponseEntity.status(HttpStatus.OK).body(pupilService.getPupilById(id));
+        return pupilService.getPupilById(id)
+                .map(pupilDTO -> ResponseEntity.ok()
+                        .eTag(EntityTags.strong("pupil", id, pupilDTO.getVersion()))
+                        .body(pupilDTO))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/async/{id}", produces = "application/json")
+    public CompletableFuture<ResponseEntity<PupilDTO>> getPupilByIdAsync(@PathVariable("id") long id) {
+        return asyncDbExecutor.submit(() -> pupilService.getPupilById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping(value = "/async/all", produces = "application/json")
+    public DeferredResult<ResponseEntity<PageDTO<PupilDTO>>> getAllPupilsAsync(@RequestParam(value = "after", required = false) String after,
+                                                                               @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return asyncDbExecutor.defer(() -> ResponseEntity.ok(pupilService.getPupilPage(after, limit)));
+    }
+
+    @GetMapping(value = "/export")
+    public void exportPupils(@RequestParam(value = "format", defaultValue = "json") String format,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        SqlStatisticsFilter.markStreaming(request);
+        pupilService.exportPupils(exportFormat, response.getOutputStream());
     }
 
     @PostMapping
     public ResponseEntity<?> addPupil(@RequestBody PupilDTO pupilDTO) {
-        try {
-            pupilService.addPupil(pupilDTO);
-        } catch (PupilNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        }
+        pupilService.addPupil(pupilDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(pupilDTO);
     }
 
     @PutMapping(value = "/update/{id}", consumes = "application/json")
-    public ResponseEntity<PupilDTO> updatePupil(@PathVariable long id, @RequestBody PupilDTO pupilDTO) {
-        try {
-            pupilService.updatePupil(id, pupilDTO);
-        } catch (PupilNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    public ResponseEntity<PupilDTO> updatePupil(@PathVariable long id, @RequestBody PupilDTO pupilDTO,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            pupilDTO.setVersion(EntityTags.ifMatchVersion(ifMatch, "pupil", id));
         }
+        pupilService.updatePupil(id, pupilDTO);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PatchMapping(value = "/update/{id}", consumes = "application/json")
+    public ResponseEntity<PupilDTO> patchPupil(@PathVariable long id, @RequestBody PupilDTO pupilDTO,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            pupilDTO.setVersion(EntityTags.ifMatchVersion(ifMatch, "pupil", id));
+        }
+        pupilService.patchPupil(id, pupilDTO);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping(value = "/delete/{id}")
     public ResponseEntity<PupilDTO> deletePupil(@PathVariable long id) {
-        try {
-            pupilService.deletePupil(id);
-        } catch (PupilNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+        pupilService.deletePupil(id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
+
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> addPupils(@RequestBody List<PupilDTO> pupilDTOs) {
+        return ResponseEntity.ok(pupilService.addPupils(pupilDTOs));
+    }
+
+    @PutMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> updatePupils(@RequestBody List<PupilDTO> pupilDTOs) {
+        return ResponseEntity.ok(pupilService.updatePupils(pupilDTOs));
+    }
+
+    @DeleteMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> deletePupils(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(pupilService.deletePupils(ids));
+    }
 }
\ No newline at end of file
@@ -1,13 +1,26 @@
 package ru.evlitvin.rest.api.v1;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.SchoolDTO;
-import ru.evlitvin.exception.SchoolNotFoundException;
 import ru.evlitvin.service.SchoolService;
+import ru.evlitvin.util.datasource.SqlStatisticsFilter;
+import ru.evlitvin.util.execution.AsyncDbExecutor;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.http.EntityTags;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/school")
@@ -15,58 +28,108 @@ public class SchoolController {
 
     private final SchoolService schoolService;
 
-    public SchoolController(SchoolService schoolService) {
+    private final AsyncDbExecutor asyncDbExecutor;
+
+    public SchoolController(SchoolService schoolService, AsyncDbExecutor asyncDbExecutor) {
         this.schoolService = schoolService;
+        this.asyncDbExecutor = asyncDbExecutor;
     }
 
     @GetMapping(value = "/{id}", produces = "application/json")
-    public ResponseEntity<SchoolDTO> getSchoolById(@PathVariable("id") long id) {
-        try {
-            SchoolDTO schoolDTO = schoolService.getSchoolById(id);
-            return ResponseEntity.ok(schoolDTO);
-        } catch (SchoolNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    public ResponseEntity<SchoolDTO> getSchoolById(@PathVariable("id") long id, WebRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = schoolService.getSchoolETag(id);
+            if (eTag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (EntityTags.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
         }
+        return schoolService.getSchoolById(id)
+                .map(schoolDTO -> ResponseEntity.ok()
+                        .eTag(EntityTags.strong("school", id, schoolDTO.getVersion()))
+                        .body(schoolDTO))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping(value = "/all", produces = "application/json")
-    public ResponseEntity<List<SchoolDTO>> getAllSchools() {
-        try {
-            List<SchoolDTO> schoolDTOList = schoolService.getAllSchools();
-            return ResponseEntity.ok(schoolDTOList);
-        } catch (SchoolNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+    public ResponseEntity<PageDTO<SchoolDTO>> getAllSchools(@RequestParam(value = "after", required = false) String after,
+                                                            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        PageDTO<SchoolDTO> schoolDTOPage = schoolService.getSchoolPage(after, limit);
+        return ResponseEntity.ok(schoolDTOPage);
+    }
+
+    @GetMapping(value = "/async/{id}", produces = "application/json")
+    public CompletableFuture<ResponseEntity<SchoolDTO>> getSchoolByIdAsync(@PathVariable("id") long id) {
+        return asyncDbExecutor.submit(() -> schoolService.getSchoolById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping(value = "/async/all", produces = "application/json")
+    public DeferredResult<ResponseEntity<PageDTO<SchoolDTO>>> getAllSchoolsAsync(@RequestParam(value = "after", required = false) String after,
+                                                                                 @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return asyncDbExecutor.defer(() -> ResponseEntity.ok(schoolService.getSchoolPage(after, limit)));
+    }
+
+    @GetMapping(value = "/export")
+    public void exportSchools(@RequestParam(value = "format", defaultValue = "json") String format,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        SqlStatisticsFilter.markStreaming(request);
+        schoolService.exportSchools(exportFormat, response.getOutputStream());
     }
 
     @PostMapping(consumes = "application/json")
     public ResponseEntity<SchoolDTO> createSchool(@RequestBody SchoolDTO schoolDTO) {
-        try {
-            schoolService.createSchool(schoolDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).build();
-        } catch (SchoolNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        }
+        schoolService.createSchool(schoolDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @PutMapping(value = "/update/{id}", consumes = "application/json")
-    public ResponseEntity<SchoolDTO> updateSchool(@PathVariable("id") long id, @RequestBody SchoolDTO schoolDTO) {
-        try {
-            schoolService.updateSchool(id, schoolDTO);
-        } catch (SchoolNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    public ResponseEntity<SchoolDTO> updateSchool(@PathVariable("id") long id, @RequestBody SchoolDTO schoolDTO,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            schoolDTO.setVersion(EntityTags.ifMatchVersion(ifMatch, "school", id));
         }
+        schoolService.updateSchool(id, schoolDTO);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PatchMapping(value = "/update/{id}", consumes = "application/json")
+    public ResponseEntity<SchoolDTO> patchSchool(@PathVariable("id") long id, @RequestBody SchoolDTO schoolDTO,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            schoolDTO.setVersion(EntityTags.ifMatchVersion(ifMatch, "school", id));
+        }
+        schoolService.patchSchool(id, schoolDTO);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping(value = "/delete/{id}")
     public ResponseEntity<SchoolDTO> deleteSchool(@PathVariable("id") long id) {
-        try {
-            schoolService.deleteSchool(id);
-        } catch (SchoolNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+        schoolService.deleteSchool(id);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> createSchools(@RequestBody List<SchoolDTO> schoolDTOs) {
+        return ResponseEntity.ok(schoolService.createSchools(schoolDTOs));
+    }
+
+    @PutMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> updateSchools(@RequestBody List<SchoolDTO> schoolDTOs) {
+        return ResponseEntity.ok(schoolService.updateSchools(schoolDTOs));
+    }
+
+    @DeleteMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> deleteSchools(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(schoolService.deleteSchools(ids));
+    }
+
 }
@@ -1,13 +1,26 @@
 package ru.evlitvin.rest.api.v1;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.TeacherDTO;
-import ru.evlitvin.exception.TeacherNotFoundException;
 import ru.evlitvin.service.TeacherService;
+import ru.evlitvin.util.datasource.SqlStatisticsFilter;
+import ru.evlitvin.util.execution.AsyncDbExecutor;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.http.EntityTags;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/teacher")
@@ -15,58 +28,115 @@ public class TeacherController {
 
     private final TeacherService teacherService;
 
-    public TeacherController(TeacherService teacherService) {
+    private final AsyncDbExecutor asyncDbExecutor;
+
+    public TeacherController(TeacherService teacherService, AsyncDbExecutor asyncDbExecutor) {
         this.teacherService = teacherService;
+        this.asyncDbExecutor = asyncDbExecutor;
     }
 
     @GetMapping(value = "/{id}", produces = "application/json")
-    public ResponseEntity<TeacherDTO> getTeacherById(@PathVariable("id") long id) {
-        try {
-            TeacherDTO teacherDTO = teacherService.getTeacherById(id);
-            return ResponseEntity.ok(teacherDTO);
-        } catch (TeacherNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    public ResponseEntity<TeacherDTO> getTeacherById(@PathVariable("id") long id, WebRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = teacherService.getTeacherETag(id);
+            if (eTag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (EntityTags.matches(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
         }
+        return teacherService.getTeacherById(id)
+                .map(teacherDTO -> ResponseEntity.ok()
+                        .eTag(EntityTags.strong("teacher", id, teacherDTO.getVersion()))
+                        .body(teacherDTO))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping(value = "/all", produces = "application/json")
-    public ResponseEntity<List<TeacherDTO>> getAllTeachers() {
-        try {
-            List<TeacherDTO> teacherDTOList = teacherService.getAllTeachers();
-            return ResponseEntity.ok(teacherDTOList);
-        } catch (TeacherNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+    public ResponseEntity<PageDTO<TeacherDTO>> getAllTeachers(@RequestParam(value = "after", required = false) String after,
+                                                              @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        PageDTO<TeacherDTO> teacherDTOPage = teacherService.getTeacherPage(after, limit);
+        return ResponseEntity.ok(teacherDTOPage);
+    }
+
+    @GetMapping(value = "/search", produces = "application/json")
+    public ResponseEntity<PageDTO<TeacherDTO>> searchTeachers(@RequestParam("q") String query,
+                                                              @RequestParam(value = "after", required = false) String after,
+                                                              @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(teacherService.searchTeachers(query, after, limit));
+    }
+
+    @GetMapping(value = "/async/{id}", produces = "application/json")
+    public CompletableFuture<ResponseEntity<TeacherDTO>> getTeacherByIdAsync(@PathVariable("id") long id) {
+        return asyncDbExecutor.submit(() -> teacherService.getTeacherById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping(value = "/async/all", produces = "application/json")
+    public DeferredResult<ResponseEntity<PageDTO<TeacherDTO>>> getAllTeachersAsync(@RequestParam(value = "after", required = false) String after,
+                                                                                   @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return asyncDbExecutor.defer(() -> ResponseEntity.ok(teacherService.getTeacherPage(after, limit)));
+    }
+
+    @GetMapping(value = "/export")
+    public void exportTeachers(@RequestParam(value = "format", defaultValue = "json") String format,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        SqlStatisticsFilter.markStreaming(request);
+        teacherService.exportTeachers(exportFormat, response.getOutputStream());
     }
 
     @PostMapping(consumes = "application/json")
     public ResponseEntity<TeacherDTO> createTeacher(@RequestBody TeacherDTO teacherDTO) {
-        try {
-            teacherService.createTeacher(teacherDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).build();
-        } catch (TeacherNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        }
+        teacherService.createTeacher(teacherDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @PutMapping(value = "/update/{id}", consumes = "application/json")
-    public ResponseEntity<TeacherDTO> updateTeacher(@PathVariable("id") long id, @RequestBody TeacherDTO teacherDTO) {
-        try {
-            teacherService.updateTeacher(id, teacherDTO);
-        } catch (TeacherNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    public ResponseEntity<TeacherDTO> updateTeacher(@PathVariable("id") long id, @RequestBody TeacherDTO teacherDTO,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            teacherDTO.setVersion(EntityTags.ifMatchVersion(ifMatch, "teacher", id));
         }
+        teacherService.updateTeacher(id, teacherDTO);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PatchMapping(value = "/update/{id}", consumes = "application/json")
+    public ResponseEntity<TeacherDTO> patchTeacher(@PathVariable("id") long id, @RequestBody TeacherDTO teacherDTO,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            teacherDTO.setVersion(EntityTags.ifMatchVersion(ifMatch, "teacher", id));
+        }
+        teacherService.patchTeacher(id, teacherDTO);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping(value = "/delete/{id}")
     public ResponseEntity<TeacherDTO> deleteTeacher(@PathVariable("id") long id) {
-        try {
-            teacherService.deleteTeacher(id);
-        } catch (TeacherNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
+        teacherService.deleteTeacher(id);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> createTeachers(@RequestBody List<TeacherDTO> teacherDTOs) {
+        return ResponseEntity.ok(teacherService.createTeachers(teacherDTOs));
+    }
+
+    @PutMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> updateTeachers(@RequestBody List<TeacherDTO> teacherDTOs) {
+        return ResponseEntity.ok(teacherService.updateTeachers(teacherDTOs));
+    }
+
+    @DeleteMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<BatchResultDTO>> deleteTeachers(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(teacherService.deleteTeachers(ids));
+    }
+
 }
@@ -1,14 +1,33 @@
 package ru.evlitvin.service;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.evlitvin.config.CacheConfig;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.PupilDTO;
 import ru.evlitvin.entity.Pupil;
 import ru.evlitvin.exception.PupilNotFoundException;
 import ru.evlitvin.repository.PupilRepository;
+import ru.evlitvin.repository.PupilSearchHit;
+import ru.evlitvin.util.batch.ChunkedBatchExecutor;
+import ru.evlitvin.util.datasource.ReplicaDataSource;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.export.JsonExportWriter;
+import ru.evlitvin.util.http.EntityTags;
 import ru.evlitvin.util.mapper.PupilMapper;
+import ru.evlitvin.util.pagination.Cursor;
+import ru.evlitvin.util.search.SearchQuery;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class PupilService {
@@ -17,19 +36,51 @@ public class PupilService {
 
     private final PupilRepository pupilRepository;
 
-    public PupilService(PupilMapper pupilMapper, PupilRepository pupilRepository) {
+    private final JsonExportWriter jsonExportWriter;
+
+    private final ChunkedBatchExecutor chunkedBatchExecutor;
+
+    public PupilService(PupilMapper pupilMapper, PupilRepository pupilRepository, JsonExportWriter jsonExportWriter,
+                        ChunkedBatchExecutor chunkedBatchExecutor) {
         this.pupilMapper = pupilMapper;
         this.pupilRepository = pupilRepository;
+        this.jsonExportWriter = jsonExportWriter;
+        this.chunkedBatchExecutor = chunkedBatchExecutor;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> getPupilETag(long id) {
+        return ReplicaDataSource.readFromPrimary(() ->
+                pupilRepository.findVersionById(id).map(version -> EntityTags.strong("pupil", id, version)));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PUPILS, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<PupilDTO> getPupilById(long id) {
+        return ReplicaDataSource.readFromPrimary(() -> pupilRepository.findById(id).map(pupilMapper::toPupilDTO));
     }
 
-    public PupilDTO getPupilById(long id) {
-        return pupilMapper.toPupilDTO(pupilRepository.findById(id).orElseThrow(() -> new PupilNotFoundException("No pupil found with ID: " + id)));
+    @Transactional(readOnly = true)
+    public PageDTO<PupilDTO> getPupilPage(String after, int limit) {
+        List<PupilDTO> pupils = pupilRepository.findDTOsAfter(Cursor.decode(after), Cursor.fetchLimit(limit));
+        return Cursor.toPage(pupils, limit, PupilDTO::getId, Function.identity());
     }
 
-    public List<PupilDTO> getAllPupils() {
-        return pupilRepository.findAll().stream()
-                .map(pupilMapper::toPupilDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageDTO<PupilDTO> searchPupils(String query, String after, int limit) {
+        SearchQuery searchQuery = SearchQuery.parse(query);
+        long offset = SearchQuery.offset(Cursor.decode(after));
+        List<PupilSearchHit> hits = pupilRepository.search(searchQuery.getPrefixQuery(), searchQuery.getText(),
+                Cursor.fetchSize(limit), offset);
+        return Cursor.toOffsetPage(hits, limit, offset,
+                hit -> new PupilDTO(hit.getId(), hit.getFirstName(), hit.getLastName(), hit.getVersion()));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPupils(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Pupil> pupils = pupilRepository.streamAll()) {
+            jsonExportWriter.write(pupils, pupilMapper::toPupilDTO, format, out);
+        }
     }
 
     public void addPupil(PupilDTO pupilDTO) {
@@ -37,10 +88,15 @@ public class PupilService {
         pupilRepository.save(pupil);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PUPILS, key = "#id")
+    @Transactional
     public void updatePupil(long id, PupilDTO pupilDTO) {
         Pupil pupil = pupilRepository.findById(id).orElseThrow(
-                () -> new PupilNotFoundException("No pupil found with ID: " + id)
+                () -> new PupilNotFoundException(id)
         );
+        if (pupilDTO.getVersion() != null && !pupilDTO.getVersion().equals(pupil.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Pupil.class, id);
+        }
         if (pupilDTO.getFirstName() != null) {
             pupil.setFirstName(pupilDTO.getFirstName());
         }
@@ -50,7 +106,52 @@ public class PupilService {
         pupilRepository.save(pupil);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PUPILS, key = "#id")
+    @Transactional
+    public void patchPupil(long id, PupilDTO pupilDTO) {
+        int updated = pupilRepository.patchById(id, pupilDTO.getFirstName(), pupilDTO.getLastName(), pupilDTO.getVersion());
+        if (updated == 0) {
+            if (!pupilRepository.existsById(id)) {
+                throw new PupilNotFoundException(id);
+            }
+            throw new ObjectOptimisticLockingFailureException(Pupil.class, id);
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PUPILS, key = "#id")
+    @Transactional
     public void deletePupil(long id) {
         pupilRepository.deleteById(id);
     }
+
+    @CacheEvict(cacheNames = CacheConfig.PUPILS, allEntries = true)
+    public List<BatchResultDTO> addPupils(List<PupilDTO> pupilDTOs) {
+        return chunkedBatchExecutor.execute(pupilDTOs, pupilDTO -> {
+            Pupil pupil = pupilMapper.toPupil(pupilDTO);
+            pupilRepository.save(pupil);
+            return pupil.getId();
+        }, BatchResultDTO.Status.CREATED);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PUPILS, allEntries = true)
+    public List<BatchResultDTO> updatePupils(List<PupilDTO> pupilDTOs) {
+        return chunkedBatchExecutor.execute(pupilDTOs, pupilDTO -> {
+            if (pupilDTO.getId() == null) {
+                throw new IllegalArgumentException("Pupil id is required");
+            }
+            patchPupil(pupilDTO.getId(), pupilDTO);
+            return pupilDTO.getId();
+        }, BatchResultDTO.Status.UPDATED);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PUPILS, allEntries = true)
+    public List<BatchResultDTO> deletePupils(List<Long> ids) {
+        return chunkedBatchExecutor.execute(ids, id -> {
+            Pupil pupil = pupilRepository.findById(id).orElseThrow(
+                    () -> new PupilNotFoundException(id)
+            );
+            pupilRepository.delete(pupil);
+            return id;
+        }, BatchResultDTO.Status.DELETED);
+    }
 }
\ No newline at end of file
@@ -1,13 +1,40 @@
 package ru.evlitvin.service;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.evlitvin.config.CacheConfig;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.SchoolDTO;
+import ru.evlitvin.dto.TeacherDTO;
 import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
 import ru.evlitvin.exception.SchoolNotFoundException;
 import ru.evlitvin.repository.SchoolRepository;
+import ru.evlitvin.repository.TeacherRepository;
+import ru.evlitvin.util.batch.ChunkedBatchExecutor;
+import ru.evlitvin.util.datasource.ReplicaDataSource;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.export.JsonExportWriter;
+import ru.evlitvin.util.http.EntityTags;
 import ru.evlitvin.util.mapper.SchoolMapper;
+import ru.evlitvin.util.mapper.TeacherMapper;
+import ru.evlitvin.util.pagination.Cursor;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class SchoolService {
@@ -16,39 +43,72 @@ public class SchoolService {
 
     private final SchoolMapper schoolMapper;
 
-    public SchoolService(SchoolRepository schoolRepository, SchoolMapper schoolMapper) {
+    private final TeacherRepository teacherRepository;
+
+    private final TeacherMapper teacherMapper;
+
+    private final JsonExportWriter jsonExportWriter;
+
+    private final ChunkedBatchExecutor chunkedBatchExecutor;
+
+    public SchoolService(SchoolRepository schoolRepository, SchoolMapper schoolMapper, TeacherRepository teacherRepository,
+                         TeacherMapper teacherMapper, JsonExportWriter jsonExportWriter,
+                         ChunkedBatchExecutor chunkedBatchExecutor) {
         this.schoolRepository = schoolRepository;
         this.schoolMapper = schoolMapper;
+        this.teacherRepository = teacherRepository;
+        this.teacherMapper = teacherMapper;
+        this.jsonExportWriter = jsonExportWriter;
+        this.chunkedBatchExecutor = chunkedBatchExecutor;
     }
 
     public void createSchool(SchoolDTO schoolDTO) {
-        School school = schoolMapper.toSchool(schoolDTO);
-        if (school.getSchoolName() == null || school.getAddress() == null) {
-            throw new IllegalArgumentException("School name and address are required");
-        }
-        schoolRepository.save(school);
+        saveNewSchool(schoolDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> getSchoolETag(Long id) {
+        return ReplicaDataSource.readFromPrimary(() ->
+                schoolRepository.findVersionById(id).map(version -> EntityTags.strong("school", id, version)));
     }
 
-    public SchoolDTO getSchoolById(Long id) {
-        School school = schoolRepository.findById(id).orElseThrow(() ->
-                new SchoolNotFoundException("No school found with ID: " + id));
-        return schoolMapper.toSchoolDTO(school);
+    @Cacheable(cacheNames = CacheConfig.SCHOOLS, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<SchoolDTO> getSchoolById(Long id) {
+        return ReplicaDataSource.readFromPrimary(() -> schoolRepository.findWithTeachersById(id).map(schoolMapper::toSchoolDTO));
     }
 
-    public List<SchoolDTO> getAllSchools() {
-        List<SchoolDTO> schools = schoolRepository.findAll().stream()
-                .map(schoolMapper::toSchoolDTO)
-                .toList();
-        if (schools.isEmpty()) {
-            throw new SchoolNotFoundException("No schools in database");
+    @Transactional(readOnly = true)
+    public PageDTO<SchoolDTO> getSchoolPage(String after, int limit) {
+        List<SchoolDTO> schools = schoolRepository.findDTOsAfter(Cursor.decode(after), Cursor.fetchLimit(limit));
+        PageDTO<SchoolDTO> page = Cursor.toPage(schools, limit, SchoolDTO::getId, Function.identity());
+        if (!page.getItems().isEmpty()) {
+            attachTeachers(page.getItems(), teacherRepository.findDTOsBySchoolIdIn(
+                    page.getItems().stream().map(SchoolDTO::getId).toList()));
         }
-        return schools;
+        return page;
     }
 
+    @Transactional(readOnly = true)
+    public void exportSchools(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<School> schools = schoolRepository.streamAll();
+             Stream<Teacher> teachers = teacherRepository.streamAllOrderBySchool()) {
+            TeacherCursor teacherCursor = new TeacherCursor(teachers.iterator());
+            jsonExportWriter.write(schools, school -> {
+                SchoolDTO schoolDTO = schoolMapper.toSchoolSummaryDTO(school);
+                schoolDTO.setTeachers(teacherCursor.takeFor(school.getId()));
+                return schoolDTO;
+            }, format, out);
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.SCHOOLS, key = "#id")
+    @Transactional
     public void updateSchool(long id, SchoolDTO schoolDTO) {
-        School school = schoolRepository.findById(id).orElseThrow(() -> new SchoolNotFoundException(
-                "No school found with ID: " + id)
-        );
+        School school = schoolRepository.findById(id).orElseThrow(() -> new SchoolNotFoundException(id));
+        if (schoolDTO.getVersion() != null && !schoolDTO.getVersion().equals(school.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(School.class, id);
+        }
         if (schoolDTO.getSchoolName() != null) {
             school.setSchoolName(schoolDTO.getSchoolName());
         }
@@ -58,11 +118,95 @@ public class SchoolService {
         schoolRepository.save(school);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SCHOOLS, key = "#id")
+    @Transactional
+    public void patchSchool(long id, SchoolDTO schoolDTO) {
+        int updated = schoolRepository.patchById(id, schoolDTO.getSchoolName(), schoolDTO.getAddress(), schoolDTO.getVersion());
+        if (updated == 0) {
+            if (!schoolRepository.existsById(id)) {
+                throw new SchoolNotFoundException(id);
+            }
+            throw new ObjectOptimisticLockingFailureException(School.class, id);
+        }
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.SCHOOLS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TEACHERS, allEntries = true)
+    })
+    @Transactional
     public void deleteSchool(Long id) {
         if (schoolRepository.findById(id).isPresent()) {
             schoolRepository.deleteById(id);
         } else {
-            throw new SchoolNotFoundException("No school found with ID: " + id);
+            throw new SchoolNotFoundException(id);
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.SCHOOLS, allEntries = true)
+    public List<BatchResultDTO> createSchools(List<SchoolDTO> schoolDTOs) {
+        return chunkedBatchExecutor.execute(schoolDTOs, this::saveNewSchool, BatchResultDTO.Status.CREATED);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.SCHOOLS, allEntries = true)
+    public List<BatchResultDTO> updateSchools(List<SchoolDTO> schoolDTOs) {
+        return chunkedBatchExecutor.execute(schoolDTOs, schoolDTO -> {
+            if (schoolDTO.getId() == null) {
+                throw new IllegalArgumentException("School id is required");
+            }
+            patchSchool(schoolDTO.getId(), schoolDTO);
+            return schoolDTO.getId();
+        }, BatchResultDTO.Status.UPDATED);
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.SCHOOLS, CacheConfig.TEACHERS}, allEntries = true)
+    public List<BatchResultDTO> deleteSchools(List<Long> ids) {
+        return chunkedBatchExecutor.execute(ids, id -> {
+            deleteSchool(id);
+            return id;
+        }, BatchResultDTO.Status.DELETED);
+    }
+
+    private Long saveNewSchool(SchoolDTO schoolDTO) {
+        School school = schoolMapper.toSchool(schoolDTO);
+        if (school.getSchoolName() == null || school.getAddress() == null) {
+            throw new IllegalArgumentException("School name and address are required");
+        }
+        schoolRepository.save(school);
+        return school.getId();
+    }
+
+    private static void attachTeachers(List<SchoolDTO> schools, List<TeacherDTO> teachers) {
+        Map<Long, List<TeacherDTO>> teachersBySchool = teachers.stream()
+                .collect(Collectors.groupingBy(TeacherDTO::getSchoolId));
+        schools.forEach(school -> school.setTeachers(teachersBySchool.getOrDefault(school.getId(), new ArrayList<>())));
+    }
+
+    private final class TeacherCursor {
+
+        private final Iterator<Teacher> teachers;
+
+        private Teacher next;
+
+        private TeacherCursor(Iterator<Teacher> teachers) {
+            this.teachers = teachers;
+            this.next = teachers.hasNext() ? teachers.next() : null;
+        }
+
+        private List<TeacherDTO> takeFor(Long schoolId) {
+            while (next != null && next.getSchool().getId() < schoolId) {
+                advance();
+            }
+            List<TeacherDTO> result = new ArrayList<>();
+            while (next != null && next.getSchool().getId().equals(schoolId)) {
+                result.add(teacherMapper.toTeacherDTO(next));
+                advance();
+            }
+            return result;
+        }
+
+        private void advance() {
+            next = teachers.hasNext() ? teachers.next() : null;
         }
     }
 }
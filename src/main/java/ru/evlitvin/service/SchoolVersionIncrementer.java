@@ -0,0 +1,69 @@
+package ru.evlitvin.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.evlitvin.repository.SchoolRepository;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Component
+public class SchoolVersionIncrementer {
+
+    private final SchoolRepository schoolRepository;
+
+    public SchoolVersionIncrementer(SchoolRepository schoolRepository) {
+        this.schoolRepository = schoolRepository;
+    }
+
+    public void schoolChanged(Long schoolId) {
+        if (schoolId != null) {
+            pending().schoolIds.add(schoolId);
+        }
+    }
+
+    public void teacherChanged(Long teacherId) {
+        pending().teacherIds.add(teacherId);
+    }
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("School versions can only be incremented inside a transaction");
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SchoolVersionIncrementer.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void apply(Pending pending) {
+        if (!pending.teacherIds.isEmpty()) {
+            schoolRepository.incrementVersionsByTeacherIds(pending.teacherIds);
+        }
+        if (!pending.schoolIds.isEmpty()) {
+            schoolRepository.incrementVersions(pending.schoolIds);
+        }
+    }
+
+    private static final class Pending {
+
+        private final Set<Long> schoolIds = new LinkedHashSet<>();
+
+        private final Set<Long> teacherIds = new LinkedHashSet<>();
+    }
+}
@@ -1,13 +1,35 @@
 package ru.evlitvin.service;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.evlitvin.config.CacheConfig;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.TeacherDTO;
 import ru.evlitvin.entity.Teacher;
 import ru.evlitvin.exception.TeacherNotFoundException;
+import ru.evlitvin.repository.SchoolRepository;
 import ru.evlitvin.repository.TeacherRepository;
+import ru.evlitvin.repository.TeacherSearchHit;
+import ru.evlitvin.util.batch.ChunkedBatchExecutor;
+import ru.evlitvin.util.datasource.ReplicaDataSource;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.export.JsonExportWriter;
+import ru.evlitvin.util.http.EntityTags;
 import ru.evlitvin.util.mapper.TeacherMapper;
+import ru.evlitvin.util.pagination.Cursor;
+import ru.evlitvin.util.search.SearchQuery;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class TeacherService {
@@ -16,39 +38,76 @@ public class TeacherService {
 
     private final TeacherMapper teacherMapper;
 
-    public TeacherService(TeacherRepository teacherRepository, TeacherMapper teacherMapper) {
+    private final SchoolRepository schoolRepository;
+
+    private final SchoolVersionIncrementer schoolVersionIncrementer;
+
+    private final JsonExportWriter jsonExportWriter;
+
+    private final ChunkedBatchExecutor chunkedBatchExecutor;
+
+    public TeacherService(TeacherRepository teacherRepository, TeacherMapper teacherMapper, SchoolRepository schoolRepository,
+                          SchoolVersionIncrementer schoolVersionIncrementer, JsonExportWriter jsonExportWriter,
+                          ChunkedBatchExecutor chunkedBatchExecutor) {
         this.teacherRepository = teacherRepository;
         this.teacherMapper = teacherMapper;
+        this.schoolRepository = schoolRepository;
+        this.schoolVersionIncrementer = schoolVersionIncrementer;
+        this.jsonExportWriter = jsonExportWriter;
+        this.chunkedBatchExecutor = chunkedBatchExecutor;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.SCHOOLS, allEntries = true)
+    @Transactional
     public void createTeacher(TeacherDTO teacherDTO) {
-        Teacher teacher = teacherMapper.toTeacher(teacherDTO);
-        if (teacher.getFirstName() == null || teacher.getLastName() == null) {
-            throw new IllegalArgumentException("Teacher firstname and lastname are required");
-        }
-        teacherRepository.save(teacher);
+        saveNewTeacher(teacherDTO);
     }
 
-    public TeacherDTO getTeacherById(Long id) {
-        Teacher teacher = teacherRepository.findById(id).orElseThrow(() ->
-                new TeacherNotFoundException("No teacher found with ID: " + id));
-        return teacherMapper.toTeacherDTO(teacher);
+    @Transactional(readOnly = true)
+    public Optional<String> getTeacherETag(Long id) {
+        return ReplicaDataSource.readFromPrimary(() ->
+                teacherRepository.findVersionById(id).map(version -> EntityTags.strong("teacher", id, version)));
     }
 
-    public List<TeacherDTO> getAllTeachers() {
-        List<TeacherDTO> teachers = teacherRepository.findAll().stream()
-                .map(teacherMapper::toTeacherDTO)
-                .toList();
-        if (teachers.isEmpty()) {
-            throw new TeacherNotFoundException("No teachers in database");
+    @Cacheable(cacheNames = CacheConfig.TEACHERS, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<TeacherDTO> getTeacherById(Long id) {
+        return ReplicaDataSource.readFromPrimary(() -> teacherRepository.findById(id).map(teacherMapper::toTeacherDTO));
+    }
+
+    @Transactional(readOnly = true)
+    public PageDTO<TeacherDTO> getTeacherPage(String after, int limit) {
+        List<TeacherDTO> teachers = teacherRepository.findDTOsAfter(Cursor.decode(after), Cursor.fetchLimit(limit));
+        return Cursor.toPage(teachers, limit, TeacherDTO::getId, Function.identity());
+    }
+
+    @Transactional(readOnly = true)
+    public PageDTO<TeacherDTO> searchTeachers(String query, String after, int limit) {
+        SearchQuery searchQuery = SearchQuery.parse(query);
+        long offset = SearchQuery.offset(Cursor.decode(after));
+        List<TeacherSearchHit> hits = teacherRepository.search(searchQuery.getPrefixQuery(), searchQuery.getText(),
+                Cursor.fetchSize(limit), offset);
+        return Cursor.toOffsetPage(hits, limit, offset, hit -> new TeacherDTO(hit.getId(), hit.getFirstName(),
+                hit.getLastName(), hit.getSchoolId(), hit.getVersion()));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTeachers(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Teacher> teachers = teacherRepository.streamAll()) {
+            jsonExportWriter.write(teachers, teacherMapper::toTeacherDTO, format, out);
         }
-        return teachers;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.SCHOOLS, allEntries = true)
+    })
+    @Transactional
     public void updateTeacher(long id, TeacherDTO teacherDTO) {
-        Teacher teacher = teacherRepository.findById(id).orElseThrow(() -> new TeacherNotFoundException(
-                "No teacher found with ID: " + id)
-        );
+        Teacher teacher = teacherRepository.findById(id).orElseThrow(() -> new TeacherNotFoundException(id));
+        if (teacherDTO.getVersion() != null && !teacherDTO.getVersion().equals(teacher.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Teacher.class, id);
+        }
         if (teacherDTO.getFirstName() != null) {
             teacher.setFirstName(teacherDTO.getFirstName());
         }
@@ -56,13 +115,74 @@ public class TeacherService {
             teacher.setLastName(teacherDTO.getLastName());
         }
         teacherRepository.save(teacher);
+        schoolVersionIncrementer.schoolChanged(schoolId(teacher));
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.SCHOOLS, allEntries = true)
+    })
+    @Transactional
+    public void patchTeacher(long id, TeacherDTO teacherDTO) {
+        int updated = teacherRepository.patchById(id, teacherDTO.getFirstName(), teacherDTO.getLastName(), teacherDTO.getVersion());
+        if (updated == 0) {
+            if (!teacherRepository.existsById(id)) {
+                throw new TeacherNotFoundException(id);
+            }
+            throw new ObjectOptimisticLockingFailureException(Teacher.class, id);
+        }
+        schoolVersionIncrementer.teacherChanged(id);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.SCHOOLS, allEntries = true)
+    })
+    @Transactional
     public void deleteTeacher(Long id) {
-        if (teacherRepository.findById(id).isPresent()) {
-            teacherRepository.deleteById(id);
-        } else {
-            throw new TeacherNotFoundException("No teacher found with ID: " + id);
+        Teacher teacher = teacherRepository.findById(id).orElseThrow(() -> new TeacherNotFoundException(id));
+        schoolVersionIncrementer.schoolChanged(schoolId(teacher));
+        teacherRepository.deleteById(id);
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.TEACHERS, CacheConfig.SCHOOLS}, allEntries = true)
+    public List<BatchResultDTO> createTeachers(List<TeacherDTO> teacherDTOs) {
+        return chunkedBatchExecutor.execute(teacherDTOs, this::saveNewTeacher, BatchResultDTO.Status.CREATED);
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.TEACHERS, CacheConfig.SCHOOLS}, allEntries = true)
+    public List<BatchResultDTO> updateTeachers(List<TeacherDTO> teacherDTOs) {
+        return chunkedBatchExecutor.execute(teacherDTOs, teacherDTO -> {
+            if (teacherDTO.getId() == null) {
+                throw new IllegalArgumentException("Teacher id is required");
+            }
+            patchTeacher(teacherDTO.getId(), teacherDTO);
+            return teacherDTO.getId();
+        }, BatchResultDTO.Status.UPDATED);
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.TEACHERS, CacheConfig.SCHOOLS}, allEntries = true)
+    public List<BatchResultDTO> deleteTeachers(List<Long> ids) {
+        return chunkedBatchExecutor.execute(ids, id -> {
+            deleteTeacher(id);
+            return id;
+        }, BatchResultDTO.Status.DELETED);
+    }
+
+    private Long saveNewTeacher(TeacherDTO teacherDTO) {
+        Teacher teacher = teacherMapper.toTeacher(teacherDTO);
+        if (teacher.getFirstName() == null || teacher.getLastName() == null) {
+            throw new IllegalArgumentException("Teacher firstname and lastname are required");
         }
+        if (teacherDTO.getSchoolId() != null) {
+            teacher.setSchool(schoolRepository.getReferenceById(teacherDTO.getSchoolId()));
+        }
+        teacherRepository.save(teacher);
+        schoolVersionIncrementer.schoolChanged(teacherDTO.getSchoolId());
+        return teacher.getId();
+    }
+
+    private static Long schoolId(Teacher teacher) {
+        return teacher.getSchool() != null ? teacher.getSchool().getId() : null;
     }
 }
@@ -0,0 +1,101 @@
+package ru.evlitvin.util.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.exception.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class ChunkedBatchExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedBatchExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final int maxItems;
+
+    @Autowired
+    public ChunkedBatchExecutor(PlatformTransactionManager transactionManager, Environment env) {
+        this(transactionManager,
+                env.getProperty("batch.chunk-size", Integer.class, 500),
+                env.getProperty("batch.max-items", Integer.class, 10000));
+    }
+
+    public ChunkedBatchExecutor(PlatformTransactionManager transactionManager, int chunkSize, int maxItems) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public <T> List<BatchResultDTO> execute(List<T> items, Function<T, Long> operation, BatchResultDTO.Status status) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Batch size " + items.size() + " exceeds the limit of " + maxItems);
+        }
+        List<BatchResultDTO> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            results.addAll(executeChunk(chunk, from, operation, status));
+        }
+        return results;
+    }
+
+    private <T> List<BatchResultDTO> executeChunk(List<T> chunk, int offset, Function<T, Long> operation,
+                                                  BatchResultDTO.Status status) {
+        try {
+            return transactionTemplate.execute(transactionStatus -> {
+                List<BatchResultDTO> results = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(new BatchResultDTO(offset + i, operation.apply(chunk.get(i)), status, null));
+                }
+                return results;
+            });
+        } catch (RuntimeException e) {
+            log.debug("Chunk starting at item {} rolled back, retrying its items one by one", offset, e);
+            List<BatchResultDTO> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(executeSingle(chunk.get(i), offset + i, operation, status));
+            }
+            return results;
+        }
+    }
+
+    private <T> BatchResultDTO executeSingle(T item, int index, Function<T, Long> operation, BatchResultDTO.Status status) {
+        try {
+            Long id = transactionTemplate.execute(transactionStatus -> operation.apply(item));
+            return new BatchResultDTO(index, id, status, null);
+        } catch (RuntimeException e) {
+            return new BatchResultDTO(index, null, BatchResultDTO.Status.FAILED, errorMessage(index, e));
+        }
+    }
+
+    private static String errorMessage(int index, RuntimeException e) {
+        if (e instanceof NotFoundException || e instanceof IllegalArgumentException) {
+            log.debug("Batch item {} rejected", index, e);
+            return e.getMessage();
+        }
+        log.warn("Batch item {} failed", index, e);
+        if (e instanceof OptimisticLockingFailureException) {
+            return "The resource was modified by another request; reload it and retry";
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return "The item violates a data integrity constraint";
+        }
+        return "The item could not be processed";
+    }
+}
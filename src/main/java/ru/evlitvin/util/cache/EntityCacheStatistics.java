@@ -0,0 +1,35 @@
+package ru.evlitvin.util.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import ru.evlitvin.dto.CacheStatsDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class EntityCacheStatistics {
+
+    private final CacheManager cacheManager;
+
+    public EntityCacheStatistics(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public List<CacheStatsDTO> getSnapshot() {
+        List<CacheStatsDTO> snapshot = new ArrayList<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                snapshot.add(new CacheStatsDTO(cacheName, nativeCache.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.evlitvin.util.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+public class SecondLevelCacheSettings {
+
+    public static final String SCHOOL = "school";
+    public static final String SCHOOL_TEACHERS = "school.teachers";
+    public static final String TEACHER = "teacher";
+    public static final String TEACHER_PUPILS = "teacher.pupils";
+    public static final String PUPIL = "pupil";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private static final Map<String, String> ENTITY_REGIONS = Map.of(
+            "ru.evlitvin.entity.School", SCHOOL,
+            "ru.evlitvin.entity.Teacher", TEACHER,
+            "ru.evlitvin.entity.Pupil", PUPIL);
+
+    private static final Map<String, String> COLLECTION_REGIONS = Map.of(
+            "ru.evlitvin.entity.School.teachers", SCHOOL_TEACHERS,
+            "ru.evlitvin.entity.Teacher.pupils", TEACHER_PUPILS);
+
+    private final Environment env;
+
+    public SecondLevelCacheSettings(Environment env) {
+        this.env = env;
+    }
+
+    public boolean isEnabled() {
+        return env.getProperty("cache.l2.enabled", Boolean.class, true);
+    }
+
+    public boolean isQueryCacheEnabled() {
+        return isEnabled() && env.getProperty("cache.l2.query-cache-enabled", Boolean.class, false);
+    }
+
+    public CacheManager createCacheManager() {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate-l2-" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        for (String region : ENTITY_REGIONS.values()) {
+            cacheManager.createCache(region, regionConfiguration(region));
+        }
+        for (String region : COLLECTION_REGIONS.values()) {
+            cacheManager.createCache(region, regionConfiguration(region));
+        }
+        if (isQueryCacheEnabled()) {
+            cacheManager.createCache(QUERY_RESULTS, regionConfiguration("query"));
+            cacheManager.createCache(UPDATE_TIMESTAMPS, timestampsConfiguration());
+        }
+        return cacheManager;
+    }
+
+    public void applyTo(Properties properties, CacheManager cacheManager) {
+        boolean enabled = isEnabled();
+        properties.put("hibernate.cache.use_second_level_cache", String.valueOf(enabled));
+        properties.put("hibernate.cache.use_query_cache", String.valueOf(isQueryCacheEnabled()));
+        boolean statistics = env.getProperty("cache.l2.statistics-enabled", Boolean.class, false)
+                || Boolean.parseBoolean(properties.getProperty("hibernate.generate_statistics"));
+        properties.put("hibernate.generate_statistics", String.valueOf(statistics));
+        if (!enabled) {
+            return;
+        }
+        properties.put("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.cache_manager", cacheManager);
+        properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        properties.put("hibernate.cache.use_structured_entries", "false");
+        properties.put("hibernate.cache.auto_evict_collection_cache", "true");
+        ENTITY_REGIONS.forEach((entity, region) ->
+                properties.put("hibernate.classcache." + entity, concurrencyStrategy(region) + "," + region));
+        COLLECTION_REGIONS.forEach((role, region) ->
+                properties.put("hibernate.collectioncache." + role, concurrencyStrategy(region) + "," + region));
+    }
+
+    private String concurrencyStrategy(String region) {
+        String defaultStrategy = env.getProperty("cache.l2.concurrency-strategy", "read-write");
+        return env.getProperty("cache.l2." + region + ".concurrency-strategy", defaultStrategy);
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfiguration(String region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(env.getProperty("cache.l2." + region + ".maximum-size", Long.class, 10000L)));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(
+                env.getProperty("cache.l2." + region + ".ttl-seconds", Long.class, 3600L))));
+        configuration.setStatisticsEnabled(env.getProperty("cache.l2." + region + ".statistics-enabled", Boolean.class,
+                env.getProperty("cache.l2.statistics-enabled", Boolean.class, false)));
+        return configuration;
+    }
+
+    private CaffeineConfiguration<Object, Object> timestampsConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(env.getProperty("cache.l2.statistics-enabled", Boolean.class, false));
+        return configuration;
+    }
+}
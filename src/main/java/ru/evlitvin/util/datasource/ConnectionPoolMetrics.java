@@ -0,0 +1,112 @@
+package ru.evlitvin.util.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ru.evlitvin.dto.PoolStatsDTO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, MeterBinder {
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    public ConnectionPoolMetrics() {}
+
+    public ConnectionPoolMetrics(String poolName) {
+        this.poolName = poolName;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new Tracker();
+    }
+
+    public PoolStatsDTO getSnapshot() {
+        PoolStatsDTO snapshot = new PoolStatsDTO();
+        snapshot.setPoolName(poolName);
+        PoolStats stats = poolStats;
+        if (stats != null) {
+            snapshot.setActiveConnections(stats.getActiveConnections());
+            snapshot.setIdleConnections(stats.getIdleConnections());
+            snapshot.setTotalConnections(stats.getTotalConnections());
+            snapshot.setPendingThreads(stats.getPendingThreads());
+            snapshot.setMaxConnections(stats.getMaxConnections());
+        }
+        long acquired = acquireCount.sum();
+        snapshot.setAcquireCount(acquired);
+        snapshot.setAverageWaitMillis(acquired == 0 ? 0 : toMillis(acquireNanos.sum()) / acquired);
+        snapshot.setMaxWaitMillis(toMillis(maxAcquireNanos.get()));
+        snapshot.setTimeoutCount(timeoutCount.sum());
+        snapshot.setAverageUsageMillis(acquired == 0 ? 0 : (double) usageMillis.sum() / acquired);
+        return snapshot;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String pool = poolName != null ? poolName : "default";
+        poolGauge(registry, pool, "hikaricp.connections.active", PoolStats::getActiveConnections);
+        poolGauge(registry, pool, "hikaricp.connections.idle", PoolStats::getIdleConnections);
+        poolGauge(registry, pool, "hikaricp.connections", PoolStats::getTotalConnections);
+        poolGauge(registry, pool, "hikaricp.connections.pending", PoolStats::getPendingThreads);
+        poolGauge(registry, pool, "hikaricp.connections.max", PoolStats::getMaxConnections);
+        FunctionTimer.builder("hikaricp.connections.acquire", this,
+                        metrics -> metrics.acquireCount.sum(), metrics -> metrics.acquireNanos.sum(), TimeUnit.NANOSECONDS)
+                .tag("pool", pool)
+                .register(registry);
+        FunctionCounter.builder("hikaricp.connections.timeout", this, metrics -> metrics.timeoutCount.sum())
+                .tag("pool", pool)
+                .register(registry);
+        FunctionCounter.builder("hikaricp.connections.usage", this, metrics -> metrics.usageMillis.sum())
+                .tag("pool", pool)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void poolGauge(MeterRegistry registry, String pool, String name, ToIntFunction<PoolStats> value) {
+        Gauge.builder(name, this, metrics -> metrics.poolStats == null ? 0 : value.applyAsInt(metrics.poolStats))
+                .tag("pool", pool)
+                .register(registry);
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private class Tracker implements IMetricsTracker {
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeoutCount.increment();
+        }
+    }
+}
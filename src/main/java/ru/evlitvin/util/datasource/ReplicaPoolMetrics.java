@@ -0,0 +1,32 @@
+package ru.evlitvin.util.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ru.evlitvin.dto.PoolStatsDTO;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReplicaPoolMetrics implements MeterBinder {
+
+    private final Map<String, ConnectionPoolMetrics> pools = new LinkedHashMap<>();
+
+    public ReplicaPoolMetrics(Collection<String> poolNames) {
+        poolNames.forEach(poolName -> pools.put(poolName, new ConnectionPoolMetrics(poolName)));
+    }
+
+    public ConnectionPoolMetrics get(String poolName) {
+        return pools.get(poolName);
+    }
+
+    public List<PoolStatsDTO> getSnapshots() {
+        return pools.values().stream().map(ConnectionPoolMetrics::getSnapshot).toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        pools.values().forEach(metrics -> metrics.bindTo(registry));
+    }
+}
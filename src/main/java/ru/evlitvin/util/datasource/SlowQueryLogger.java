@@ -0,0 +1,96 @@
+package ru.evlitvin.util.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+public class SlowQueryLogger implements QueryExecutionListener {
+
+    public enum ParameterMode {
+        NONE, REDACT, SHOW
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLogger.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private final long thresholdMillis;
+    private final long warnThresholdMillis;
+    private final ParameterMode parameterMode;
+
+    public SlowQueryLogger(Environment env) {
+        this(env.getProperty("sql.slow-query.threshold-ms", Long.class, 200L),
+                env.getProperty("sql.slow-query.warn-threshold-ms", Long.class, 1000L),
+                ParameterMode.valueOf(env.getProperty("sql.slow-query.parameters", "redact").toUpperCase(Locale.ROOT)));
+    }
+
+    public SlowQueryLogger(long thresholdMillis, long warnThresholdMillis, ParameterMode parameterMode) {
+        this.thresholdMillis = thresholdMillis;
+        this.warnThresholdMillis = warnThresholdMillis;
+        this.parameterMode = parameterMode;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed < thresholdMillis || queryInfoList.isEmpty()) {
+            return;
+        }
+        if (elapsed >= warnThresholdMillis) {
+            if (log.isWarnEnabled()) {
+                log.warn(format(execInfo, queryInfoList.get(0)));
+            }
+        } else if (log.isInfoEnabled()) {
+            log.info(format(execInfo, queryInfoList.get(0)));
+        }
+    }
+
+    String format(ExecutionInfo execInfo, QueryInfo queryInfo) {
+        StringBuilder message = new StringBuilder("slow_query")
+                .append(" elapsed_ms=").append(execInfo.getElapsedTime())
+                .append(" threshold_ms=").append(thresholdMillis)
+                .append(" datasource=").append(execInfo.getDataSourceName())
+                .append(" success=").append(execInfo.isSuccess())
+                .append(" batch=").append(execInfo.isBatch());
+        if (execInfo.isBatch()) {
+            message.append(" batch_size=").append(execInfo.getBatchSize());
+        }
+        String sql = parameterMode == ParameterMode.SHOW ? queryInfo.getQuery()
+                : STRING_LITERAL.matcher(queryInfo.getQuery()).replaceAll("'?'");
+        message.append(" sql=\"").append(sql.replace('\n', ' ').replace("\"", "\\\"")).append('"');
+        if (parameterMode != ParameterMode.NONE && !queryInfo.getParametersList().isEmpty()
+                && !queryInfo.getParametersList().get(0).isEmpty()) {
+            message.append(" params=").append(parameters(queryInfo.getParametersList().get(0)));
+        }
+        return message.toString();
+    }
+
+    private String parameters(List<ParameterSetOperation> operations) {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            Object value = args.length > 1 ? args[1] : null;
+            if (ParameterSetOperation.isSetNullParameterOperation(operation) || value == null) {
+                joiner.add("null");
+            } else if (parameterMode == ParameterMode.SHOW) {
+                joiner.add(String.valueOf(value));
+            } else {
+                joiner.add(value.getClass().getSimpleName());
+            }
+        }
+        return joiner.toString();
+    }
+}
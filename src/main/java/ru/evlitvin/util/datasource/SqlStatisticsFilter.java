@@ -0,0 +1,130 @@
+package ru.evlitvin.util.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+@Component("sqlStatisticsFilter")
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String JDBC_TIME_HEADER = "X-SQL-Time-Ms";
+
+    static final String STATISTICS_ATTRIBUTE = SqlStatisticsFilter.class.getName() + ".statistics";
+
+    static final String STREAMING_ATTRIBUTE = SqlStatisticsFilter.class.getName() + ".streaming";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+    private final boolean debugHeaders;
+    private final int statementThreshold;
+    private final long jdbcMillisThreshold;
+    private final int repeatedStatementThreshold;
+
+    public SqlStatisticsFilter(Environment env) {
+        this.debugHeaders = env.getProperty("sql.stats.debug-headers", Boolean.class, false);
+        this.statementThreshold = env.getProperty("sql.stats.log-threshold-statements", Integer.class, 20);
+        this.jdbcMillisThreshold = env.getProperty("sql.stats.log-threshold-ms", Long.class, 500L);
+        this.repeatedStatementThreshold = env.getProperty("sql.stats.repeated-statement-threshold", Integer.class, 5);
+    }
+
+    public static void markStreaming(ServletRequest request) {
+        request.setAttribute(STREAMING_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = (SqlStatistics) request.getAttribute(STATISTICS_ATTRIBUTE);
+        if (statistics == null) {
+            statistics = new SqlStatistics();
+            request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        }
+        SqlStatistics.attach(statistics);
+        ContentCachingResponseWrapper wrapper = debugHeaders
+                && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null
+                ? new StreamingAwareResponseWrapper(request, response) : null;
+        HttpServletResponse target = wrapper != null ? wrapper : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            SqlStatistics.end();
+            if (!isAsyncStarted(request)) {
+                complete(request, target, statistics);
+            }
+        }
+    }
+
+    private void complete(HttpServletRequest request, HttpServletResponse response, SqlStatistics statistics)
+            throws IOException {
+        ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (wrapper != null && !isStreaming(request)) {
+            wrapper.setHeader(STATEMENTS_HEADER, Integer.toString(statistics.getStatements()));
+            wrapper.setHeader(ROWS_HEADER, Long.toString(statistics.getRows()));
+            wrapper.setHeader(JDBC_TIME_HEADER, String.format(Locale.ROOT, "%.3f", statistics.getJdbcMillis()));
+            wrapper.copyBodyToResponse();
+        } else if (debugHeaders) {
+            log.info("{} {} executed {} statements, read/updated {} rows, spent {} ms in JDBC",
+                    request.getMethod(), request.getRequestURI(), statistics.getStatements(), statistics.getRows(),
+                    String.format(Locale.ROOT, "%.3f", statistics.getJdbcMillis()));
+        }
+        report(request, statistics);
+    }
+
+    private static boolean isStreaming(ServletRequest request) {
+        return request.getAttribute(STREAMING_ATTRIBUTE) != null;
+    }
+
+    private static final class StreamingAwareResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final ServletRequest request;
+
+        StreamingAwareResponseWrapper(ServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return isStreaming(request) ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return isStreaming(request) ? getResponse().getWriter() : super.getWriter();
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatistics statistics) {
+        if (statistics.getStatements() >= statementThreshold || statistics.getJdbcMillis() >= jdbcMillisThreshold) {
+            log.warn("{} {} executed {} statements, read/updated {} rows, spent {} ms in JDBC",
+                    request.getMethod(), request.getRequestURI(), statistics.getStatements(), statistics.getRows(),
+                    String.format(Locale.ROOT, "%.1f", statistics.getJdbcMillis()));
+        }
+        for (Map.Entry<String, Integer> repeated : statistics.getRepeatedStatements(repeatedStatementThreshold).entrySet()) {
+            log.warn("Possible N+1 in {} {}: statement executed {} times: {}",
+                    request.getMethod(), request.getRequestURI(), repeated.getValue(), repeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.evlitvin.util.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+
+public class SqlStatisticsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String START_NANOS = "sqlStatistics.startNanos";
+
+    public static DataSource proxy(DataSource dataSource, String name, QueryExecutionListener... listeners) {
+        return proxy(dataSource, name, false, listeners);
+    }
+
+    public static DataSource proxy(DataSource dataSource, String name, boolean countReadRows,
+                                   QueryExecutionListener... listeners) {
+        SqlStatisticsListener listener = new SqlStatisticsListener();
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                .name(name)
+                .listener(listener);
+        if (countReadRows) {
+            builder.methodListener(listener).proxyResultSet();
+        }
+        for (QueryExecutionListener additional : listeners) {
+            builder.listener(additional);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (SqlStatistics.current() != null) {
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (statistics == null || start == null) {
+            return;
+        }
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        statistics.recordStatement(sql, execInfo.isBatch(), System.nanoTime() - start);
+        Object result = execInfo.getResult();
+        if (result instanceof Integer updated && updated > 0) {
+            statistics.recordRows(updated);
+        } else if (result instanceof int[] batchUpdated) {
+            for (int updated : batchUpdated) {
+                statistics.recordRows(Math.max(updated, 0));
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            SqlStatistics statistics = SqlStatistics.current();
+            if (statistics != null) {
+                statistics.recordRows(1);
+            }
+        }
+    }
+}
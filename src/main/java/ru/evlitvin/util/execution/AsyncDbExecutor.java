@@ -0,0 +1,46 @@
+package ru.evlitvin.util.execution;
+
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.evlitvin.util.datasource.SqlStatistics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class AsyncDbExecutor {
+
+    private final Executor executor;
+    private final long timeoutMillis;
+
+    public AsyncDbExecutor(Executor executor, long timeoutMillis) {
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        SqlStatistics statistics = SqlStatistics.current();
+        return CompletableFuture.supplyAsync(() -> {
+            SqlStatistics.attach(statistics);
+            try {
+                return work.get();
+            } finally {
+                SqlStatistics.end();
+            }
+        }, executor).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public <T> DeferredResult<T> defer(Supplier<T> work) {
+        DeferredResult<T> result = new DeferredResult<>();
+        submit(work).whenComplete((value, error) -> {
+            if (error != null) {
+                result.setErrorResult(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                result.setResult(value);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.evlitvin.util.execution;
+
+import java.util.Locale;
+
+public enum ExecutionMode {
+
+    PLATFORM, VIRTUAL;
+
+    public static ExecutionMode from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported execution mode: " + value, e);
+        }
+    }
+}
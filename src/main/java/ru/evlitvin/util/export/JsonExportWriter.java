@@ -0,0 +1,60 @@
+package ru.evlitvin.util.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+public class JsonExportWriter {
+
+    public static final int CLEAR_INTERVAL = 500;
+
+    private final EntityManager entityManager;
+
+    private final ObjectWriter objectWriter;
+
+    public JsonExportWriter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public <E, D> void write(Stream<E> entities, Function<E, D> mapper, ExportFormat format, OutputStream out) throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try (SequenceWriter writer = open(format, out)) {
+            Iterator<E> iterator = entities.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.write(mapper.apply(iterator.next()));
+                if (++written % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        out.flush();
+    }
+
+    private SequenceWriter open(ExportFormat format, OutputStream out) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            return objectWriter.withRootValueSeparator("\n").writeValues(out);
+        }
+        return objectWriter.writeValuesAsArray(out);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.evlitvin.util.hibernate;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import ru.evlitvin.dto.HibernateStatsDTO;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+public class HibernateStatistics {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public HibernateStatistics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public HibernateStatsDTO getSnapshot() {
+        Statistics statistics = statistics();
+        HibernateStatsDTO snapshot = new HibernateStatsDTO();
+        snapshot.setStatisticsEnabled(statistics.isStatisticsEnabled());
+        snapshot.setSessionOpenCount(statistics.getSessionOpenCount());
+        snapshot.setTransactionCount(statistics.getTransactionCount());
+        snapshot.setPrepareStatementCount(statistics.getPrepareStatementCount());
+        snapshot.setEntityLoadCount(statistics.getEntityLoadCount());
+        snapshot.setEntityFetchCount(statistics.getEntityFetchCount());
+        snapshot.setEntityInsertCount(statistics.getEntityInsertCount());
+        snapshot.setEntityUpdateCount(statistics.getEntityUpdateCount());
+        snapshot.setEntityDeleteCount(statistics.getEntityDeleteCount());
+        snapshot.setCollectionLoadCount(statistics.getCollectionLoadCount());
+        snapshot.setCollectionFetchCount(statistics.getCollectionFetchCount());
+        snapshot.setQueryExecutionCount(statistics.getQueryExecutionCount());
+        snapshot.setQueryExecutionMaxTimeMillis(statistics.getQueryExecutionMaxTime());
+        snapshot.setQueryExecutionMaxTimeQuery(statistics.getQueryExecutionMaxTimeQueryString());
+        snapshot.setSecondLevelCacheHitCount(statistics.getSecondLevelCacheHitCount());
+        snapshot.setSecondLevelCacheMissCount(statistics.getSecondLevelCacheMissCount());
+        snapshot.setSecondLevelCacheHitRatio(ratio(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount()));
+        snapshot.setQueryCacheHitCount(statistics.getQueryCacheHitCount());
+        snapshot.setQueryCacheMissCount(statistics.getQueryCacheMissCount());
+        snapshot.setQueryCacheHitRatio(ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+
+        Map<String, Double> regionHitRatios = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regionHitRatios.put(region, ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount()));
+            }
+        }
+        snapshot.setRegionHitRatios(regionHitRatios);
+        return snapshot;
+    }
+
+    public boolean isEnabled() {
+        return statistics().isStatisticsEnabled();
+    }
+
+    public void clear() {
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.evlitvin.util.http;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class EntityTags {
+
+    private static final Pattern VERSION = Pattern.compile("[0-9a-f]{1,16}");
+
+    private EntityTags() {}
+
+    public static String strong(String resource, long id, long... versions) {
+        StringJoiner tag = new StringJoiner(".", "\"" + resource + "-" + id + "-", "\"");
+        for (long version : versions) {
+            tag.add(Long.toHexString(version));
+        }
+        return tag.toString();
+    }
+
+    public static String weak(String eTag) {
+        return eTag == null || eTag.startsWith("W/") ? eTag : "W/" + eTag;
+    }
+
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        String current = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || opaque(tag).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static Long ifMatchVersion(String ifMatch, String resource, long id) {
+        String tag = ifMatch.trim();
+        if ("*".equals(tag)) {
+            return null;
+        }
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        String prefix = "\"" + resource + "-" + id + "-";
+        if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+            Matcher version = VERSION.matcher(tag.substring(prefix.length(), tag.length() - 1));
+            if (version.matches()) {
+                long parsed = Long.parseUnsignedLong(version.group(), 16);
+                if (strong(resource, id, parsed).equals(tag)) {
+                    return parsed;
+                }
+            }
+        }
+        throw new OptimisticLockingFailureException("If-Match " + ifMatch + " does not identify a version of " + resource + " " + id);
+    }
+
+    private static String opaque(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
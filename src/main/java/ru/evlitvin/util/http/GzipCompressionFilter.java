@@ -0,0 +1,88 @@
+package ru.evlitvin.util.http;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class GzipCompressionFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final int minSize;
+    private final Set<String> mimeTypes;
+
+    public GzipCompressionFilter(boolean enabled, int minSize, Collection<String> mimeTypes) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.mimeTypes = mimeTypes.stream()
+                .map(mimeType -> mimeType.trim().toLowerCase(Locale.ROOT))
+                .filter(mimeType -> !mimeType.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GzipResponseWrapper wrapper = WebUtils.getNativeResponse(response, GzipResponseWrapper.class);
+        if (wrapper == null) {
+            wrapper = new GzipResponseWrapper(response, minSize, mimeTypes, acceptsGzip(request));
+            response = wrapper;
+        }
+        filterChain.doFilter(request, response);
+        if (!isAsyncStarted(request)) {
+            wrapper.finish();
+        }
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        if (headers == null) {
+            return false;
+        }
+        for (String header : Collections.list(headers)) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (("gzip".equalsIgnoreCase(name) || "*".equals(name)) && !isZeroQuality(parts)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
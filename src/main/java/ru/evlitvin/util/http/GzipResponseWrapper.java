@@ -0,0 +1,255 @@
+package ru.evlitvin.util.http;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+class GzipResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int minSize;
+    private final Set<String> mimeTypes;
+    private final boolean gzipAccepted;
+
+    private CompressingOutputStream outputStream;
+    private PrintWriter writer;
+    private long contentLength = -1;
+
+    GzipResponseWrapper(HttpServletResponse response, int minSize, Set<String> mimeTypes, boolean gzipAccepted) {
+        super(response);
+        this.minSize = gzipAccepted ? Math.max(minSize, 1) : 1;
+        this.mimeTypes = mimeTypes;
+        this.gzipAccepted = gzipAccepted;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        return stream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(stream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (outputStream != null && outputStream.decided) {
+            if (!outputStream.compressing) {
+                super.setContentLengthLong(len);
+            }
+        } else {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream == null || outputStream.decided) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (outputStream != null && !outputStream.decided) {
+            outputStream.buffer.reset();
+        } else {
+            super.resetBuffer();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        contentLength = -1;
+        if (outputStream != null && !outputStream.decided) {
+            outputStream.buffer.reset();
+        }
+    }
+
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null) {
+            outputStream.finish();
+        } else {
+            if (isCompressible()) {
+                addVary();
+            }
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+    }
+
+    private CompressingOutputStream stream() {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    private boolean isCompressible() {
+        int status = getStatus();
+        if (status < 200 || status == HttpServletResponse.SC_NO_CONTENT || status == HttpServletResponse.SC_NOT_MODIFIED
+                || getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String mimeType = (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim();
+        return mimeTypes.contains(mimeType.toLowerCase(Locale.ROOT));
+    }
+
+    private void addVary() {
+        for (String vary : getHeaders(HttpHeaders.VARY)) {
+            for (String name : vary.split(",")) {
+                String trimmed = name.trim();
+                if ("*".equals(trimmed) || HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(trimmed)) {
+                    return;
+                }
+            }
+        }
+        super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(minSize, 8192));
+
+        private OutputStream target;
+        private boolean decided;
+        private boolean compressing;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!decided && buffer.size() + 1 >= minSize) {
+                decide(true);
+            }
+            if (decided) {
+                target.write(b);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!decided && buffer.size() + len >= minSize) {
+                decide(true);
+            }
+            if (decided) {
+                target.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (decided) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void finish() throws IOException {
+            if (!decided) {
+                decide(false);
+            }
+            if (target instanceof GZIPOutputStream gzip) {
+                gzip.finish();
+            }
+            target.flush();
+        }
+
+        private void decide(boolean largeEnough) throws IOException {
+            decided = true;
+            boolean negotiable = isCompressible();
+            compressing = gzipAccepted && largeEnough && negotiable;
+            if (negotiable) {
+                addVary();
+            }
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (compressing) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                String eTag = response.getHeader(HttpHeaders.ETAG);
+                if (eTag != null) {
+                    response.setHeader(HttpHeaders.ETAG, EntityTags.weak(eTag));
+                }
+                target = new GZIPOutputStream(response.getOutputStream(), 8192, true);
+            } else {
+                if (contentLength >= 0) {
+                    response.setContentLengthLong(contentLength);
+                }
+                target = response.getOutputStream();
+            }
+            buffer.writeTo(target);
+            buffer.reset();
+        }
+    }
+}
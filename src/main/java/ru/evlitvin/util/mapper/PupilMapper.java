@@ -1,6 +1,7 @@
 package ru.evlitvin.util.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.evlitvin.dto.PupilDTO;
 import ru.evlitvin.entity.Pupil;
 
@@ -9,5 +10,7 @@ public interface PupilMapper {
 
     PupilDTO toPupilDTO(Pupil pupil);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Pupil toPupil(PupilDTO pupilDTO);
 }
@@ -1,8 +1,11 @@
 package ru.evlitvin.util.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.evlitvin.dto.SchoolDTO;
+import ru.evlitvin.dto.TeacherDTO;
 import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
 import ru.evlitvin.service.SchoolService;
 
 @Mapper(componentModel = "spring", uses = SchoolService.class)
@@ -10,5 +13,16 @@ public interface SchoolMapper {
 
     SchoolDTO toSchoolDTO(School school);
 
+    @Mapping(target = "teachers", ignore = true)
+    SchoolDTO toSchoolSummaryDTO(School school);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     School toSchool(SchoolDTO schoolDTO);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "school", ignore = true)
+    @Mapping(target = "pupils", ignore = true)
+    Teacher toTeacher(TeacherDTO teacherDTO);
 }
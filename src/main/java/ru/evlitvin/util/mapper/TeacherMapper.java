@@ -12,5 +12,7 @@ public interface TeacherMapper {
     TeacherDTO toTeacherDTO(Teacher teacher);
 
     @Mapping(source = "schoolId", target = "school.id")
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Teacher toTeacher(TeacherDTO teacherDTO);
 }
@@ -0,0 +1,48 @@
+package ru.evlitvin.util.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class RepositoryMetricsListener implements RepositoryMethodInvocationListener {
+
+    public static final String REPOSITORY_TIMER = "repository.invocations";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<InvocationKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsListener(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        RepositoryMethodInvocationResult result = invocation.getResult();
+        RepositoryMethodInvocationResult.State state = result != null ? result.getState()
+                : RepositoryMethodInvocationResult.State.SUCCESS;
+        timers.computeIfAbsent(new InvocationKey(invocation.getRepositoryInterface(), invocation.getMethod(), state),
+                        this::registerTimer)
+                .record(invocation.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer registerTimer(InvocationKey key) {
+        return Timer.builder(REPOSITORY_TIMER)
+                .tag("repository", key.repository().getSimpleName())
+                .tag("method", key.method().getName())
+                .tag("state", key.state().name())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry.getObject());
+    }
+
+    private record InvocationKey(Class<?> repository, Method method, RepositoryMethodInvocationResult.State state) {
+    }
+}
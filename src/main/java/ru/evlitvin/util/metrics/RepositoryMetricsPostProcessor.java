@@ -0,0 +1,21 @@
+package ru.evlitvin.util.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final RepositoryMetricsListener listener;
+
+    public RepositoryMetricsPostProcessor(RepositoryMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.evlitvin.util.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    public static final String REQUEST_TIMER = "http.server.requests";
+    public static final String NOT_FOUND_COUNTER = "http.server.not.found";
+
+    private static final String START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".start";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<RequestKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> notFoundCounters = new ConcurrentHashMap<>();
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof Long startNanos)) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+
+        timers.computeIfAbsent(new RequestKey(request.getMethod(), uri, status), this::registerTimer)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (status == 404) {
+            notFoundCounters.computeIfAbsent(uri, this::registerNotFoundCounter).increment();
+        }
+    }
+
+    private Timer registerTimer(RequestKey key) {
+        return Timer.builder(REQUEST_TIMER)
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .tag("status", Integer.toString(key.status()))
+                .tag("outcome", outcome(key.status()))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    private Counter registerNotFoundCounter(String uri) {
+        return Counter.builder(NOT_FOUND_COUNTER)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return status >= 300 ? "REDIRECTION" : "SUCCESS";
+    }
+
+    private record RequestKey(String method, String uri, int status) {
+    }
+}
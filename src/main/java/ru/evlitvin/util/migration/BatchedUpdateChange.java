@@ -0,0 +1,166 @@
+package ru.evlitvin.util.migration;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class BatchedUpdateChange implements CustomTaskChange {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchedUpdateChange.class);
+
+    private String tableName;
+    private String keyColumn = "id";
+    private String setClause;
+    private String whereClause;
+    private int batchSize = 1000;
+    private long pauseMillis;
+
+    private long updatedRows;
+    private int batches;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        String filter = whereClause == null || whereClause.isBlank() ? "" : " AND (" + whereClause + ")";
+        String boundSql = "SELECT max(" + keyColumn + ") FROM (SELECT " + keyColumn + " FROM " + tableName
+                + " WHERE " + keyColumn + " > ?" + filter + " ORDER BY " + keyColumn + " LIMIT ?) batch";
+        String updateSql = "UPDATE " + tableName + " SET " + setClause
+                + " WHERE " + keyColumn + " > ? AND " + keyColumn + " <= ?" + filter;
+        try {
+            long lowerBound = Long.MIN_VALUE;
+            Long upperBound;
+            while ((upperBound = nextUpperBound(connection, boundSql, lowerBound)) != null) {
+                try (PreparedStatement update = connection.prepareStatement(updateSql)) {
+                    update.setLong(1, lowerBound);
+                    update.setLong(2, upperBound);
+                    updatedRows += update.executeUpdate();
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                batches++;
+                lowerBound = upperBound;
+                log.debug("Backfilled {} up to {} = {}, {} rows so far", tableName, keyColumn, upperBound, updatedRows);
+                pause();
+            }
+        } catch (SQLException | DatabaseException e) {
+            throw new CustomChangeException("Batched update of " + tableName + " failed after " + batches
+                    + " batches", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Updated " + updatedRows + " rows of " + tableName + " in " + batches + " batches";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        ValidationErrors errors = new ValidationErrors();
+        errors.checkRequiredField("tableName", tableName);
+        errors.checkRequiredField("setClause", setClause);
+        if (batchSize < 1) {
+            errors.addError("batchSize must be positive");
+        }
+        return errors;
+    }
+
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    public void setKeyColumn(String keyColumn) {
+        this.keyColumn = keyColumn;
+    }
+
+    public String getSetClause() {
+        return setClause;
+    }
+
+    public void setSetClause(String setClause) {
+        this.setClause = setClause;
+    }
+
+    public String getWhereClause() {
+        return whereClause;
+    }
+
+    public void setWhereClause(String whereClause) {
+        this.whereClause = whereClause;
+    }
+
+    public String getBatchSize() {
+        return String.valueOf(batchSize);
+    }
+
+    public void setBatchSize(String batchSize) {
+        this.batchSize = Integer.parseInt(batchSize.trim());
+    }
+
+    public String getPauseMillis() {
+        return String.valueOf(pauseMillis);
+    }
+
+    public void setPauseMillis(String pauseMillis) {
+        this.pauseMillis = Long.parseLong(pauseMillis.trim());
+    }
+
+    private Long nextUpperBound(JdbcConnection connection, String boundSql, long lowerBound)
+            throws SQLException, DatabaseException {
+        try (PreparedStatement bound = connection.prepareStatement(boundSql)) {
+            bound.setLong(1, lowerBound);
+            bound.setInt(2, batchSize);
+            try (ResultSet resultSet = bound.executeQuery()) {
+                resultSet.next();
+                long value = resultSet.getLong(1);
+                return resultSet.wasNull() ? null : value;
+            }
+        }
+    }
+
+    private void pause() throws CustomChangeException {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomChangeException("Interrupted between batches of " + tableName, e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.evlitvin.util.pagination;
+
+import org.springframework.data.domain.Limit;
+import ru.evlitvin.dto.PageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+public final class Cursor {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private Cursor() {
+    }
+
+    public static String encode(long id) {
+        return ENCODER.encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        long id;
+        try {
+            id = Long.parseLong(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return id;
+    }
+
+    public static Limit fetchLimit(int limit) {
+        return Limit.of(clamp(limit) + 1);
+    }
+
+    public static <E, D> PageDTO<D> toPage(List<E> rows, int limit, ToLongFunction<E> idExtractor, Function<E, D> mapper) {
+        int pageSize = clamp(limit);
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<D> items = pageRows.stream().map(mapper).toList();
+        String nextCursor = hasMore ? encode(idExtractor.applyAsLong(pageRows.get(pageSize - 1))) : null;
+        return new PageDTO<>(items, nextCursor);
+    }
+
+    public static <E, D> PageDTO<D> toOffsetPage(List<E> rows, int limit, long offset, Function<E, D> mapper) {
+        int pageSize = clamp(limit);
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<D> items = pageRows.stream().map(mapper).toList();
+        String nextCursor = hasMore ? encode(offset + pageSize) : null;
+        return new PageDTO<>(items, nextCursor);
+    }
+
+    public static int fetchSize(int limit) {
+        return clamp(limit) + 1;
+    }
+
+    private static int clamp(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.evlitvin.util.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class SearchQuery {
+
+    public static final int MAX_LENGTH = 100;
+    public static final int MAX_TERMS = 5;
+    public static final long MAX_OFFSET = 10_000;
+
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private final String text;
+    private final String prefixQuery;
+
+    private SearchQuery(String text, String prefixQuery) {
+        this.text = text;
+        this.prefixQuery = prefixQuery;
+    }
+
+    public static SearchQuery parse(String query) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (query.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Search query must not be longer than " + MAX_LENGTH + " characters");
+        }
+        List<String> terms = new ArrayList<>();
+        Matcher matcher = TERM.matcher(query.toLowerCase(Locale.ROOT));
+        while (matcher.find() && terms.size() < MAX_TERMS) {
+            terms.add(matcher.group());
+        }
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain letters or digits: " + query);
+        }
+        return new SearchQuery(String.join(" ", terms), String.join(":* & ", terms) + ":*");
+    }
+
+    public static long offset(long offset) {
+        if (offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_OFFSET
+                    + " matches, refine the query");
+        }
+        return offset;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getPrefixQuery() {
+        return prefixQuery;
+    }
+}
@@ -1,3 +1,8 @@
+--liquibase formatted sql
+
+--changeset evlitvin:001-initial-schema
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:0 SELECT count(*) FROM information_schema.tables WHERE table_schema = 'public' AND table_name = 'school'
 SET
 search_path TO public;
 
@@ -5,7 +10,8 @@ CREATE TABLE school
 (
     id          BIGSERIAL PRIMARY KEY NOT NULL,
     school_name TEXT                  NOT NULL,
-    address     TEXT                  NOT NULL
+    address     TEXT                  NOT NULL,
+    version     BIGINT                NOT NULL DEFAULT 0
 );
 
 CREATE TABLE teacher
@@ -14,6 +20,7 @@ CREATE TABLE teacher
     first_name TEXT                  NOT NULL,
     last_name  TEXT                  NOT NULL,
     school_id  BIGINT                NOT NULL,
+    version    BIGINT                NOT NULL DEFAULT 0,
     CONSTRAINT fk_post_school FOREIGN KEY (school_id) REFERENCES school (id)
 );
 
@@ -22,7 +29,8 @@ CREATE TABLE pupil
 (
     id         BIGSERIAL PRIMARY KEY NOT NULL,
     first_name TEXT                  NOT NULL,
-    last_name  TEXT                  NOT NULL
+    last_name  TEXT                  NOT NULL,
+    version    BIGINT                NOT NULL DEFAULT 0
 );
 
 CREATE TABLE teacher_pupil
@@ -41,4 +49,4 @@ CREATE TABLE school_teacher
     CONSTRAINT fk_school FOREIGN KEY (school_id) REFERENCES school (id),
     CONSTRAINT fk_teacher FOREIGN KEY (teacher_id) REFERENCES teacher (id),
     PRIMARY KEY (school_id, teacher_id)
-);
\ No newline at end of file
+);
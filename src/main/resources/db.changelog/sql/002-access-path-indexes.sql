@@ -0,0 +1,35 @@
+--liquibase formatted sql
+
+--changeset evlitvin:002-teacher-school-id-index runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teacher_school_id ON teacher (school_id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_teacher_school_id;
+
+--changeset evlitvin:002-teacher-pupil-reverse-index runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teacher_pupil_pupil_id_teacher_id ON teacher_pupil (pupil_id, teacher_id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_teacher_pupil_pupil_id_teacher_id;
+
+--changeset evlitvin:002-school-teacher-reverse-index runInTransaction:false
+--preconditions onFail:MARK_RAN
+--precondition-sql-check expectedResult:1 SELECT count(*) FROM information_schema.tables WHERE table_schema = 'public' AND table_name = 'school_teacher'
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_school_teacher_teacher_id_school_id ON school_teacher (teacher_id, school_id);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_school_teacher_teacher_id_school_id;
+
+--changeset evlitvin:002-name-btree-indexes runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pupil_last_name_first_name ON pupil (last_name, first_name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teacher_last_name_first_name ON teacher (last_name, first_name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_school_school_name ON school (school_name);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_pupil_last_name_first_name;
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_teacher_last_name_first_name;
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_school_school_name;
+
+--changeset evlitvin:002-pg-trgm-extension
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+--rollback DROP EXTENSION IF EXISTS pg_trgm;
+
+--changeset evlitvin:002-name-trigram-indexes runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pupil_last_name_trgm ON pupil USING gin (last_name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teacher_last_name_trgm ON teacher USING gin (last_name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_school_school_name_trgm ON school USING gin (school_name gin_trgm_ops);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_pupil_last_name_trgm;
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_teacher_last_name_trgm;
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_school_school_name_trgm;
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset evlitvin:003-version-columns
+ALTER TABLE school ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE teacher ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE pupil ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+--changeset evlitvin:004-search-vector-columns
+ALTER TABLE pupil ADD COLUMN IF NOT EXISTS search_vector tsvector;
+ALTER TABLE teacher ADD COLUMN IF NOT EXISTS search_vector tsvector;
+--rollback ALTER TABLE pupil DROP COLUMN IF EXISTS search_vector;
+--rollback ALTER TABLE teacher DROP COLUMN IF EXISTS search_vector;
+
+--changeset evlitvin:004-search-vector-function splitStatements:false
+CREATE OR REPLACE FUNCTION person_search_vector(first_name TEXT, last_name TEXT) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(last_name, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(first_name, '')), 'B')
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+--rollback DROP FUNCTION IF EXISTS person_search_vector(TEXT, TEXT);
+
+--changeset evlitvin:004-search-vector-trigger-function splitStatements:false
+CREATE OR REPLACE FUNCTION person_search_vector_trigger() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := person_search_vector(NEW.first_name, NEW.last_name);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+--rollback DROP FUNCTION IF EXISTS person_search_vector_trigger();
+
+--changeset evlitvin:004-search-vector-triggers
+DROP TRIGGER IF EXISTS pupil_search_vector ON pupil;
+CREATE TRIGGER pupil_search_vector BEFORE INSERT OR UPDATE OF first_name, last_name ON pupil
+    FOR EACH ROW EXECUTE FUNCTION person_search_vector_trigger();
+DROP TRIGGER IF EXISTS teacher_search_vector ON teacher;
+CREATE TRIGGER teacher_search_vector BEFORE INSERT OR UPDATE OF first_name, last_name ON teacher
+    FOR EACH ROW EXECUTE FUNCTION person_search_vector_trigger();
+--rollback DROP TRIGGER IF EXISTS pupil_search_vector ON pupil;
+--rollback DROP TRIGGER IF EXISTS teacher_search_vector ON teacher;
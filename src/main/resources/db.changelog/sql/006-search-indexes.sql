@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset evlitvin:006-search-vector-indexes runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pupil_search_vector ON pupil USING gin (search_vector);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teacher_search_vector ON teacher USING gin (search_vector);
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_pupil_search_vector;
+--rollback DROP INDEX CONCURRENTLY IF EXISTS idx_teacher_search_vector;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset evlitvin:007-sequence-increments
+ALTER SEQUENCE school_id_seq INCREMENT BY 50;
+ALTER SEQUENCE teacher_id_seq INCREMENT BY 50;
+ALTER SEQUENCE pupil_id_seq INCREMENT BY 50;
+--rollback ALTER SEQUENCE school_id_seq INCREMENT BY 1;
+--rollback ALTER SEQUENCE teacher_id_seq INCREMENT BY 1;
+--rollback ALTER SEQUENCE pupil_id_seq INCREMENT BY 1;
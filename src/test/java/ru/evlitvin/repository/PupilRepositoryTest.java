@@ -1,6 +1,7 @@
 package ru.evlitvin.repository;
 
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -16,15 +18,20 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.evlitvin.dto.PupilDTO;
 import ru.evlitvin.entity.Pupil;
 
 import javax.sql.DataSource;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringJUnitConfig(PupilRepositoryTest.Config.class)
 @ComponentScan(basePackages = "ru.evlitvin.repository")
@@ -33,6 +40,9 @@ class PupilRepositoryTest {
     @Autowired
     private PupilRepository pupilRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     public void setUp() {
         pupilRepository.deleteAll();
@@ -184,4 +194,63 @@ class PupilRepositoryTest {
 
         assertEquals("Mark", pupilRepository.findById(pupilOne.getId()).get().getFirstName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenConcurrentUpdates_whenSaveStaleCopy_thenThrowOptimisticLockingFailure() {
+        Pupil pupil = pupilRepository.save(new Pupil(null, "Petr", "Petrov"));
+
+        Pupil firstCopy = pupilRepository.findById(pupil.getId()).orElseThrow();
+        Pupil secondCopy = pupilRepository.findById(pupil.getId()).orElseThrow();
+
+        firstCopy.setFirstName("Mark");
+        pupilRepository.save(firstCopy);
+        secondCopy.setFirstName("Ivan");
+
+        assertThrows(OptimisticLockException.class, () -> pupilRepository.save(secondCopy));
+        Pupil stored = pupilRepository.findById(pupil.getId()).orElseThrow();
+        assertEquals("Mark", stored.getFirstName());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void givenExistingPupils_whenFindDTOsAfter_thenReturnNextPageInIdOrder() {
+        Pupil pupilOne = pupilRepository.save(new Pupil(null, "Ivan", "Ivanov"));
+        Pupil pupilTwo = pupilRepository.save(new Pupil(null, "Petr", "Petrov"));
+        Pupil pupilThree = pupilRepository.save(new Pupil(null, "Sidor", "Sidorov"));
+
+        List<PupilDTO> page = pupilRepository.findDTOsAfter(pupilOne.getId(), Limit.of(1));
+
+        assertEquals(1, page.size());
+        assertEquals(pupilTwo.getId(), page.get(0).getId());
+        assertEquals("Petr", page.get(0).getFirstName());
+        assertEquals(0L, page.get(0).getVersion());
+        assertEquals(List.of(pupilThree.getId()),
+                pupilRepository.findDTOsAfter(pupilTwo.getId(), Limit.of(5)).stream().map(PupilDTO::getId).toList());
+    }
+
+    @Test
+    void givenExistingPupils_whenStreamAll_thenReturnAllPupilsInIdOrder() {
+        Pupil pupilOne = pupilRepository.save(new Pupil(null, "Ivan", "Ivanov"));
+        Pupil pupilTwo = pupilRepository.save(new Pupil(null, "Petr", "Petrov"));
+
+        List<Long> ids = new TransactionTemplate(transactionManager).execute(status -> {
+            try (Stream<Pupil> pupils = pupilRepository.streamAll()) {
+                return pupils.map(Pupil::getId).toList();
+            }
+        });
+
+        assertEquals(List.of(pupilOne.getId(), pupilTwo.getId()), ids);
+    }
+
+    @Test
+    void givenManyNewPupils_whenSaveAll_thenAssignDistinctSequenceIds() {
+        List<Pupil> pupils = IntStream.range(0, 120)
+                .mapToObj(i -> new Pupil(null, "Ivan" + i, "Ivanov" + i))
+                .toList();
+
+        List<Pupil> savedPupils = pupilRepository.saveAll(pupils);
+
+        assertEquals(120, savedPupils.stream().map(Pupil::getId).distinct().count());
+        assertEquals(120, pupilRepository.count());
+    }
+}
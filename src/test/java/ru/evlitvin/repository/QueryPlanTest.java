@@ -0,0 +1,147 @@
+package ru.evlitvin.repository;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException, LiquibaseException {
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword()));
+        liquibase.setChangeLog("classpath:db.changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO school (id, school_name, address) "
+                    + "SELECT g, 'School ' || g, 'Address ' || g FROM generate_series(1, 200) g");
+            statement.execute("INSERT INTO teacher (id, first_name, last_name, school_id) "
+                    + "SELECT g, 'Teacher' || g, 'Teacherov' || g, g % 200 + 1 FROM generate_series(1, 10000) g");
+            statement.execute("INSERT INTO pupil (id, first_name, last_name) "
+                    + "SELECT g, 'Pupil' || g, 'Pupilov' || g FROM generate_series(1, 50000) g");
+            statement.execute("INSERT INTO teacher_pupil (teacher_id, pupil_id) "
+                    + "SELECT g % 10000 + 1, g FROM generate_series(1, 50000) g "
+                    + "UNION ALL SELECT (g + 17) % 10000 + 1, g FROM generate_series(1, 50000) g");
+            statement.execute("INSERT INTO school_teacher (school_id, teacher_id) SELECT school_id, id FROM teacher");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void givenSchoolId_whenSelectTeachers_thenUseSchoolIdIndex() throws SQLException {
+        assertPlanUses("idx_teacher_school_id", "SELECT * FROM teacher WHERE school_id = 42");
+    }
+
+    @Test
+    void givenPupilId_whenSelectTheirTeachers_thenUseReverseJoinTableIndex() throws SQLException {
+        assertPlanUses("idx_teacher_pupil_pupil_id_teacher_id", "SELECT teacher_id FROM teacher_pupil WHERE pupil_id = 4242");
+    }
+
+    @Test
+    void givenTeacherId_whenSelectTheirSchools_thenUseReverseJoinTableIndex() throws SQLException {
+        assertPlanUses("idx_school_teacher_teacher_id_school_id", "SELECT school_id FROM school_teacher WHERE teacher_id = 4242");
+    }
+
+    @Test
+    void givenFullName_whenSelectPupil_thenUseNameIndex() throws SQLException {
+        assertPlanUses("idx_pupil_last_name_first_name",
+                "SELECT * FROM pupil WHERE last_name = 'Pupilov4242' AND first_name = 'Pupil4242'");
+    }
+
+    @Test
+    void givenNameFragment_whenSelectPupils_thenUseTrigramIndex() throws SQLException {
+        assertPlanUses("idx_pupil_last_name_trgm", "SELECT * FROM pupil WHERE last_name ILIKE '%ilov4242%'");
+    }
+
+    @Test
+    void givenNameFragment_whenSelectTeachers_thenUseTrigramIndex() throws SQLException {
+        assertPlanUses("idx_teacher_last_name_trgm", "SELECT * FROM teacher WHERE last_name ILIKE '%erov4242%'");
+    }
+
+    @Test
+    void givenNamePrefix_whenSearchPupils_thenUseSearchVectorIndex() throws SQLException {
+        assertPlanUses("idx_pupil_search_vector", pupilSearch("pupilov4242:*", "pupilov4242"));
+    }
+
+    @Test
+    void givenNamePrefix_whenSearchTeachers_thenUseSearchVectorIndex() throws SQLException {
+        assertPlanUses("idx_teacher_search_vector", "SELECT t.id FROM teacher t, to_tsquery('simple', 'teacherov42:*') query "
+                + "WHERE t.search_vector @@ query OR t.last_name % 'teacherov42' "
+                + "ORDER BY ts_rank(t.search_vector, query) + similarity(t.last_name, 'teacherov42') DESC, t.id LIMIT 21");
+    }
+
+    @Test
+    void givenExactLastName_whenSearchPupils_thenRankExactMatchFirst() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(pupilSearch("pupilov4242:*", "pupilov4242"))) {
+            assertTrue(resultSet.next());
+            assertEquals(4242L, resultSet.getLong(1));
+        }
+    }
+
+    @Test
+    void givenRenamedPupil_whenSearchByNewName_thenTriggerKeepsSearchVectorCurrent() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE pupil SET last_name = 'Zamyatin' WHERE id = 777");
+            try (ResultSet resultSet = statement.executeQuery(pupilSearch("zamyat:*", "zamyat"))) {
+                assertTrue(resultSet.next());
+                assertEquals(777L, resultSet.getLong(1));
+            }
+        }
+    }
+
+    private static String pupilSearch(String prefixQuery, String text) {
+        return "SELECT p.id FROM pupil p, to_tsquery('simple', '" + prefixQuery + "') query "
+                + "WHERE p.search_vector @@ query OR p.last_name % '" + text + "' "
+                + "ORDER BY ts_rank(p.search_vector, query) + similarity(p.last_name, '" + text + "') DESC, p.id LIMIT 21";
+    }
+
+    private static void assertPlanUses(String index, String query) throws SQLException {
+        String plan = explain(query);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    private static String explain(String query) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + query)) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+}
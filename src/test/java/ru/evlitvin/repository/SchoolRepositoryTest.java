@@ -9,6 +9,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -16,14 +17,19 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.transaction.PlatformTransactionManager;
+import ru.evlitvin.dto.SchoolDTO;
 import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
+import ru.evlitvin.util.datasource.SqlStatisticsListener;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static ru.evlitvin.util.datasource.SqlStatisticsAssertions.assertStatementCount;
 
 @SpringJUnitConfig(SchoolRepositoryTest.Config.class)
 @ComponentScan(basePackages = "ru.evlitvin.repository")
@@ -55,7 +61,7 @@ class SchoolRepositoryTest {
             dataSource.setUrl(env.getProperty("jdbc.url"));
             dataSource.setUsername(env.getProperty("jdbc.username"));
             dataSource.setPassword(env.getProperty("jdbc.password"));
-            return dataSource;
+            return SqlStatisticsListener.proxy(dataSource, "test");
         }
 
         @Bean
@@ -182,4 +188,84 @@ class SchoolRepositoryTest {
 
         assertEquals("School # 1 another address", schoolRepository.findById(schoolOne.getId()).get().getAddress());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenSchoolWithTeachers_whenFindWithTeachersById_thenReturnSchoolWithLoadedTeachers() {
+        School school = new School();
+        school.setSchoolName("School # 1");
+        school.setAddress("School # 1 address");
+
+        Teacher teacherOne = new Teacher(null, "Ivan", "Ivanov", school);
+        Teacher teacherTwo = new Teacher(null, "Petr", "Petrov", school);
+        school.setTeachers(new ArrayList<>(List.of(teacherOne, teacherTwo)));
+
+        schoolRepository.save(school);
+
+        School foundSchool = assertStatementCount(1, () -> schoolRepository.findWithTeachersById(school.getId())).orElseThrow();
+
+        assertEquals(2, foundSchool.getTeachers().size());
+    }
+
+    @Test
+    void givenSchoolsWithTeachers_whenFindDTOsAfter_thenSelectSchoolColumnsOnlyInOneStatement() {
+        School schoolOne = new School();
+        schoolOne.setSchoolName("School # 1");
+        schoolOne.setAddress("School # 1 address");
+        schoolOne.setTeachers(new ArrayList<>(List.of(
+                new Teacher(null, "Ivan", "Ivanov", schoolOne),
+                new Teacher(null, "Petr", "Petrov", schoolOne))));
+
+        School schoolTwo = new School();
+        schoolTwo.setSchoolName("School # 2");
+        schoolTwo.setAddress("School # 2 address");
+
+        schoolRepository.save(schoolOne);
+        schoolRepository.save(schoolTwo);
+
+        List<SchoolDTO> schools = assertStatementCount(1, () -> schoolRepository.findDTOsAfter(0L, Limit.of(10)));
+
+        assertEquals(List.of(schoolOne.getId(), schoolTwo.getId()), schools.stream().map(SchoolDTO::getId).toList());
+        assertEquals("School # 1 address", schools.get(0).getAddress());
+        assertEquals(0L, schools.get(0).getVersion());
+        assertNull(schools.get(0).getTeachers());
+    }
+
+    @Test
+    void givenExistingSchools_whenFindDTOsAfter_thenReturnSchoolsInOrderUpToLimit() {
+        School schoolOne = schoolRepository.save(new School(null, "School # 1", "School # 1 address"));
+        School schoolTwo = schoolRepository.save(new School(null, "School # 2", "School # 2 address"));
+        School schoolThree = schoolRepository.save(new School(null, "School # 3", "School # 3 address"));
+
+        List<SchoolDTO> schools = schoolRepository.findDTOsAfter(schoolOne.getId(), Limit.of(2));
+
+        assertEquals(List.of(schoolTwo.getId(), schoolThree.getId()), schools.stream().map(SchoolDTO::getId).toList());
+    }
+
+    @Test
+    void givenSchoolWithTeachers_whenIncrementVersionsByTeacherIds_thenBumpOnlyThatSchoolInOneStatement() {
+        School school = new School(null, "School # 1", "School # 1 address");
+        school.setTeachers(new ArrayList<>(List.of(new Teacher(null, "Ivan", "Ivanov", school))));
+        schoolRepository.save(school);
+        School otherSchool = schoolRepository.save(new School(null, "School # 2", "School # 2 address"));
+        Long teacherId = school.getTeachers().get(0).getId();
+
+        assertEquals(0L, assertStatementCount(1, () -> schoolRepository.findVersionById(school.getId())).orElseThrow());
+        assertEquals(1, assertStatementCount(1, () -> schoolRepository.incrementVersionsByTeacherIds(List.of(teacherId))));
+
+        assertEquals(1L, schoolRepository.findVersionById(school.getId()).orElseThrow());
+        assertEquals(0L, schoolRepository.findVersionById(otherSchool.getId()).orElseThrow());
+        assertEquals(0, schoolRepository.incrementVersionsByTeacherIds(List.of(-1L)));
+        assertTrue(schoolRepository.findVersionById(-1L).isEmpty());
+    }
+
+    @Test
+    void givenSchools_whenIncrementVersions_thenBumpEachInOneStatementAndNextLoadSeesNewVersion() {
+        School school = schoolRepository.save(new School(null, "School # 1", "School # 1 address"));
+        School otherSchool = schoolRepository.save(new School(null, "School # 2", "School # 2 address"));
+
+        assertEquals(2, assertStatementCount(1, () -> schoolRepository.incrementVersions(List.of(school.getId(), otherSchool.getId()))));
+
+        assertEquals(1L, schoolRepository.findVersionById(school.getId()).orElseThrow());
+        assertEquals(1L, schoolRepository.findById(otherSchool.getId()).orElseThrow().getVersion());
+    }
+}
@@ -1,6 +1,8 @@
 package ru.evlitvin.repository;
 
 import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -16,6 +19,8 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.transaction.PlatformTransactionManager;
+import ru.evlitvin.dto.TeacherDTO;
+import ru.evlitvin.entity.School;
 import ru.evlitvin.entity.Teacher;
 
 import javax.sql.DataSource;
@@ -32,11 +37,19 @@ class TeacherRepositoryTest {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private SchoolRepository schoolRepository;
+
     @BeforeEach
     public void setUp() {
         teacherRepository.deleteAll();
     }
 
+    @AfterEach
+    public void tearDown() {
+        teacherRepository.deleteAll();
+    }
+
     @Configuration
     @EnableJpaRepositories(basePackages = "ru.evlitvin.repository")
     @PropertySource("classpath:test.properties")
@@ -182,4 +195,38 @@ class TeacherRepositoryTest {
 
         assertEquals("Petrov", teacherRepository.findById(teacherOne.getId()).get().getLastName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenTeacherWithSchool_whenFindById_thenSchoolIdAvailableWithoutLoadingSchool() {
+        School school = new School();
+        school.setSchoolName("School # 1");
+        school.setAddress("School # 1 address");
+        schoolRepository.save(school);
+
+        Teacher teacher = new Teacher(null, "Ivan", "Ivanov", school);
+        teacherRepository.save(teacher);
+
+        Teacher foundTeacher = teacherRepository.findById(teacher.getId()).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(foundTeacher.getSchool()));
+        assertEquals(school.getId(), foundTeacher.getSchool().getId());
+    }
+
+    @Test
+    void givenTeachersWithAndWithoutSchool_whenFindDTOs_thenProjectSchoolIdWithoutDroppingUnassignedTeachers() {
+        School school = schoolRepository.save(new School(null, "School # 1", "School # 1 address"));
+        Teacher assigned = teacherRepository.save(new Teacher(null, "Ivan", "Ivanov", school));
+        Teacher unassigned = teacherRepository.save(new Teacher(null, "Petr", "Petrov"));
+
+        List<TeacherDTO> all = teacherRepository.findDTOsAfter(0L, Limit.of(5));
+
+        assertEquals(List.of(assigned.getId(), unassigned.getId()), all.stream().map(TeacherDTO::getId).toList());
+        assertEquals(school.getId(), all.get(0).getSchoolId());
+        assertNull(all.get(1).getSchoolId());
+        assertEquals(List.of(assigned.getId()),
+                teacherRepository.findDTOsBySchoolIdIn(List.of(school.getId())).stream().map(TeacherDTO::getId).toList());
+        assertEquals(List.of(unassigned.getId()),
+                teacherRepository.findDTOsAfter(assigned.getId(), Limit.of(5)).stream().map(TeacherDTO::getId).toList());
+    }
+
+}
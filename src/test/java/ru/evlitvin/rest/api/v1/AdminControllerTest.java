@@ -0,0 +1,122 @@
+package ru.evlitvin.rest.api.v1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.evlitvin.dto.CacheStatsDTO;
+import ru.evlitvin.dto.HibernateStatsDTO;
+import ru.evlitvin.dto.PoolStatsDTO;
+import ru.evlitvin.util.cache.EntityCacheStatistics;
+import ru.evlitvin.util.datasource.ConnectionPoolMetrics;
+import ru.evlitvin.util.datasource.ReplicaPoolMetrics;
+import ru.evlitvin.util.hibernate.HibernateStatistics;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdminControllerTest {
+
+    @InjectMocks
+    private AdminController adminController;
+
+    @Mock
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Mock
+    private ReplicaPoolMetrics replicaPoolMetrics;
+
+    @Mock
+    private EntityCacheStatistics entityCacheStatistics;
+
+    @Mock
+    private HibernateStatistics hibernateStatistics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void givenPoolMetrics_whenGetPoolStats_thenReturnSnapshotAndHttpStatusOk() {
+        PoolStatsDTO poolStatsDTO = new PoolStatsDTO();
+        poolStatsDTO.setActiveConnections(3);
+        poolStatsDTO.setIdleConnections(7);
+
+        when(connectionPoolMetrics.getSnapshot()).thenReturn(poolStatsDTO);
+
+        ResponseEntity<PoolStatsDTO> responseEntity = adminController.getPoolStats();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(3, responseEntity.getBody().getActiveConnections());
+        assertEquals(7, responseEntity.getBody().getIdleConnections());
+    }
+
+    @Test
+    void givenReplicaPools_whenGetReplicaPoolStats_thenReturnOneSnapshotPerReplica() {
+        PoolStatsDTO replicaOne = new PoolStatsDTO();
+        replicaOne.setPoolName("school-pool-replica-1");
+        replicaOne.setPendingThreads(4);
+        PoolStatsDTO replicaTwo = new PoolStatsDTO();
+        replicaTwo.setPoolName("school-pool-replica-2");
+
+        when(replicaPoolMetrics.getSnapshots()).thenReturn(List.of(replicaOne, replicaTwo));
+
+        ResponseEntity<List<PoolStatsDTO>> responseEntity = adminController.getReplicaPoolStats();
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(2, responseEntity.getBody().size());
+        assertEquals(4, responseEntity.getBody().get(0).getPendingThreads());
+    }
+
+    @Test
+    void givenCacheStatistics_whenGetCacheStats_thenReturnStatisticsAndHttpStatusOk() {
+        List<CacheStatsDTO> cacheStats = List.of(new CacheStatsDTO("pupils", 10, 90, 10, 0.9, 2));
+
+        when(entityCacheStatistics.getSnapshot()).thenReturn(cacheStats);
+
+        ResponseEntity<List<CacheStatsDTO>> responseEntity = adminController.getCacheStats();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(cacheStats, responseEntity.getBody());
+    }
+
+    @Test
+    void givenHibernateStatistics_whenGetHibernateStats_thenReturnSnapshotAndHttpStatusOk() {
+        HibernateStatsDTO hibernateStatsDTO = new HibernateStatsDTO();
+        hibernateStatsDTO.setEntityLoadCount(42);
+        hibernateStatsDTO.setQueryExecutionMaxTimeMillis(15);
+
+        when(hibernateStatistics.isEnabled()).thenReturn(true);
+        when(hibernateStatistics.getSnapshot()).thenReturn(hibernateStatsDTO);
+
+        ResponseEntity<HibernateStatsDTO> responseEntity = adminController.getHibernateStats();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(42, responseEntity.getBody().getEntityLoadCount());
+        assertEquals(15, responseEntity.getBody().getQueryExecutionMaxTimeMillis());
+    }
+
+    @Test
+    void givenHibernateStatisticsDisabled_whenGetHibernateStats_thenReportDisabledWithoutReadingCounters() {
+        when(hibernateStatistics.isEnabled()).thenReturn(false);
+
+        ResponseEntity<HibernateStatsDTO> responseEntity = adminController.getHibernateStats();
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertFalse(responseEntity.getBody().isStatisticsEnabled());
+        verify(hibernateStatistics, never()).getSnapshot();
+    }
+
+    @Test
+    void whenResetHibernateStats_thenClearStatisticsAndReturnHttpStatusNoContent() {
+        ResponseEntity<Void> responseEntity = adminController.resetHibernateStats();
+
+        assertEquals(HttpStatus.NO_CONTENT, responseEntity.getStatusCode());
+        verify(hibernateStatistics).clear();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.evlitvin.rest.api.v1;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import ru.evlitvin.exception.NotFoundException;
+import ru.evlitvin.exception.PupilNotFoundException;
+import ru.evlitvin.exception.SchoolNotFoundException;
+import ru.evlitvin.exception.TeacherNotFoundException;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+
+    @Test
+    void givenNotFoundException_whenHandleNotFound_thenReturnProblemDetailAndHttpStatusNotFound() {
+        ResponseEntity<ProblemDetail> responseEntity = globalExceptionHandler.handleNotFound(new PupilNotFoundException(1L));
+
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        ProblemDetail problemDetail = responseEntity.getBody();
+        assertNotNull(problemDetail);
+        assertEquals(404, problemDetail.getStatus());
+        assertEquals("No pupil found with ID: 1", problemDetail.getDetail());
+        assertEquals("pupil", problemDetail.getProperties().get("resource"));
+        assertEquals(1L, problemDetail.getProperties().get("id"));
+    }
+
+    @Test
+    void givenMissingSchool_whenHandleNotFound_thenReturnProblemDetailWithSchoolResource() {
+        ResponseEntity<ProblemDetail> responseEntity = globalExceptionHandler.handleNotFound(new SchoolNotFoundException(5L));
+
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        assertEquals("No school found with ID: 5", responseEntity.getBody().getDetail());
+        assertEquals("school", responseEntity.getBody().getProperties().get("resource"));
+        assertEquals(5L, responseEntity.getBody().getProperties().get("id"));
+    }
+
+    @Test
+    void givenIllegalArgumentException_whenHandleIllegalArgument_thenReturnProblemDetailAndHttpStatusBadRequest() {
+        ResponseEntity<ProblemDetail> responseEntity =
+                globalExceptionHandler.handleIllegalArgument(new IllegalArgumentException("Invalid cursor: broken"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        assertEquals("Invalid cursor: broken", responseEntity.getBody().getDetail());
+    }
+
+    @Test
+    void givenNotFoundException_whenCreated_thenDoNotCaptureStackTrace() {
+        NotFoundException exception = new TeacherNotFoundException(7L);
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(0, exception.getSuppressed().length);
+        assertEquals("No teacher found with ID: 7", exception.getMessage());
+    }
+
+    @Test
+    void givenTimeoutException_whenHandleTimeout_thenReturnProblemDetailAndHttpStatusGatewayTimeout() {
+        ResponseEntity<ProblemDetail> responseEntity = globalExceptionHandler.handleTimeout(new TimeoutException());
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, responseEntity.getStatusCode());
+        assertEquals("Database timeout", responseEntity.getBody().getTitle());
+    }
+
+    @Test
+    void givenRejectedExecutionException_whenHandleRejectedExecution_thenReturnHttpStatusServiceUnavailableWithRetryAfter() {
+        ResponseEntity<ProblemDetail> responseEntity =
+                globalExceptionHandler.handleRejectedExecution(new RejectedExecutionException("queue full"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("1", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Server busy", responseEntity.getBody().getTitle());
+    }
+
+    @Test
+    void givenIfMatchRequest_whenHandleOptimisticLockingFailure_thenReturnHttpStatusPreconditionFailed() {
+        WebRequest request = mock(WebRequest.class);
+        when(request.getHeader(HttpHeaders.IF_MATCH)).thenReturn("\"pupil-1-0\"");
+
+        ResponseEntity<ProblemDetail> responseEntity = globalExceptionHandler.handleOptimisticLockingFailure(
+                new OptimisticLockingFailureException("stale"), request);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, responseEntity.getStatusCode());
+        assertEquals("Precondition failed", responseEntity.getBody().getTitle());
+    }
+
+    @Test
+    void givenUnconditionalRequest_whenHandleOptimisticLockingFailure_thenReturnHttpStatusConflict() {
+        ResponseEntity<ProblemDetail> responseEntity = globalExceptionHandler.handleOptimisticLockingFailure(
+                new OptimisticLockingFailureException("stale"), mock(WebRequest.class));
+
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+    }
+}
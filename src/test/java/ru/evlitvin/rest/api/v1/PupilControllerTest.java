@@ -1,18 +1,33 @@
 package ru.evlitvin.rest.api.v1;
 
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.PupilDTO;
 import ru.evlitvin.exception.PupilNotFoundException;
 import ru.evlitvin.service.PupilService;
+import ru.evlitvin.util.execution.AsyncDbExecutor;
+import ru.evlitvin.util.export.ExportFormat;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +40,12 @@ class PupilControllerTest {
     @Mock
     private PupilService pupilService;
 
+    @Mock
+    private WebRequest webRequest;
+
+    @Spy
+    private AsyncDbExecutor asyncDbExecutor = new AsyncDbExecutor(Runnable::run, 1000);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -36,32 +57,102 @@ class PupilControllerTest {
         pupils.add(new PupilDTO(1L, "Ivan", "Ivanov"));
         pupils.add(new PupilDTO(2L, "Petr", "Petrov"));
 
-        when(pupilService.getAllPupils()).thenReturn(pupils);
+        PageDTO<PupilDTO> page = new PageDTO<>(pupils, "Mg");
 
-        ResponseEntity<List<PupilDTO>> responseEntity = pupilController.getAllPupils();
+        when(pupilService.getPupilPage(null, 2)).thenReturn(page);
+
+        ResponseEntity<PageDTO<PupilDTO>> responseEntity = pupilController.getAllPupils(null, 2);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-        assertEquals(pupils, responseEntity.getBody());
+        assertEquals(pupils, responseEntity.getBody().getItems());
+        assertEquals("Mg", responseEntity.getBody().getNextCursor());
     }
 
     @Test
-    void givenExistingPupil_whenGetPupilById_thenReturnPupilAndHttpStatusOk() throws PupilNotFoundException {
-        PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov");
+    void givenInvalidCursor_whenGetAllPupils_thenPropagateIllegalArgumentException() {
+        when(pupilService.getPupilPage("broken", 100)).thenThrow(new IllegalArgumentException("Invalid cursor: broken"));
+
+        assertThrows(IllegalArgumentException.class, () -> pupilController.getAllPupils("broken", 100));
+    }
+
+    @Test
+    void givenMatchingPupils_whenSearchPupils_thenReturnPageAndHttpStatusOk() {
+        List<PupilDTO> pupils = List.of(new PupilDTO(1L, "Ivan", "Ivanov"));
+        PageDTO<PupilDTO> page = new PageDTO<>(pupils, "MjA");
+
+        when(pupilService.searchPupils("ivan", null, 20)).thenReturn(page);
+
+        ResponseEntity<PageDTO<PupilDTO>> responseEntity = pupilController.searchPupils("ivan", null, 20);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(pupils, responseEntity.getBody().getItems());
+        assertEquals("MjA", responseEntity.getBody().getNextCursor());
+    }
+
+    @Test
+    void givenBlankQuery_whenSearchPupils_thenPropagateIllegalArgumentException() {
+        when(pupilService.searchPupils(" ", null, 20)).thenThrow(new IllegalArgumentException("Search query must not be blank"));
+
+        assertThrows(IllegalArgumentException.class, () -> pupilController.searchPupils(" ", null, 20));
+    }
+
+    @Test
+    void givenExistingPupil_whenGetPupilById_thenReturnPupilWithETagOfReturnedVersion() throws PupilNotFoundException {
+        PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov", 3L);
+
+        when(pupilService.getPupilById(1L)).thenReturn(Optional.of(pupilDTO));
 
-        ResponseEntity<PupilDTO> responseEntity = pupilController.getPupilById(pupilDTO.getId());
+        ResponseEntity<PupilDTO> responseEntity = pupilController.getPupilById(1L, webRequest);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(pupilDTO, responseEntity.getBody());
+        assertEquals("\"pupil-1-3\"", responseEntity.getHeaders().getETag());
+        verify(pupilService, never()).getPupilETag(1L);
     }
 
     @Test
-    void givenNotExistingPupil_whenGetPupilById_thenThrowPupilNotFoundExceptionAndHttpStatusNotFound() throws PupilNotFoundException {
-        when(pupilService.getPupilById(1L)).thenThrow(new PupilNotFoundException("No pupil found with ID: " + 1L));
+    void givenNotExistingPupil_whenGetPupilById_thenHttpStatusNotFound() {
+        when(pupilService.getPupilById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<PupilDTO> responseEntity = pupilController.getPupilById(1L);
+        ResponseEntity<PupilDTO> responseEntity = pupilController.getPupilById(1L, webRequest);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
 
+    @Test
+    void givenIfNoneMatchForNotExistingPupil_whenGetPupilById_thenHttpStatusNotFoundWithoutLoadingPupil() {
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"pupil-1-0\"");
+        when(pupilService.getPupilETag(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<PupilDTO> responseEntity = pupilController.getPupilById(1L, webRequest);
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        verify(pupilService, never()).getPupilById(1L);
+    }
+
+    @Test
+    void givenMatchingETag_whenGetPupilById_thenHttpStatusNotModifiedWithoutLoadingPupil() {
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("W/\"pupil-1-3\"");
+        when(pupilService.getPupilETag(1L)).thenReturn(Optional.of("\"pupil-1-3\""));
+
+        ResponseEntity<PupilDTO> responseEntity = pupilController.getPupilById(1L, webRequest);
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals("\"pupil-1-3\"", responseEntity.getHeaders().getETag());
+        assertNull(responseEntity.getBody());
+        verify(pupilService, never()).getPupilById(1L);
+    }
+
+    @Test
+    void givenStaleETag_whenGetPupilById_thenReturnPupilWithCurrentETag() {
+        PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov", 3L);
+
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"pupil-1-2\"");
+        when(pupilService.getPupilETag(1L)).thenReturn(Optional.of("\"pupil-1-3\""));
+        when(pupilService.getPupilById(1L)).thenReturn(Optional.of(pupilDTO));
+
+        ResponseEntity<PupilDTO> responseEntity = pupilController.getPupilById(1L, webRequest);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"pupil-1-3\"", responseEntity.getHeaders().getETag());
+    }
+
     @Test
     void givenCorrectPupilData_whenAddPupil_thenSavePupilAndReturnHttpStatusCreated() throws PupilNotFoundException {
         PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov");
@@ -75,14 +166,12 @@ class PupilControllerTest {
     }
 
     @Test
-    void givenPupil_whenAddPupil_thenThrowPupilNotFoundExceptionAndHttpStatusBadRequest() throws PupilNotFoundException {
+    void givenPupil_whenAddPupil_thenPropagateIllegalArgumentException() {
         PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov");
 
-        doThrow(new PupilNotFoundException("No pupil found with ID: " + 1L)).when(pupilService).addPupil(pupilDTO);
+        doThrow(new IllegalArgumentException("Pupil fields are required")).when(pupilService).addPupil(pupilDTO);
 
-        ResponseEntity<?> responseEntity = pupilController.addPupil(pupilDTO);
-        assertNotNull(responseEntity);
-        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        assertThrows(IllegalArgumentException.class, () -> pupilController.addPupil(pupilDTO));
     }
 
     @Test
@@ -91,20 +180,38 @@ class PupilControllerTest {
 
         doNothing().when(pupilService).updatePupil(1L, pupilDTO);
 
-        ResponseEntity<PupilDTO> responseEntity = pupilController.updatePupil(1L, pupilDTO);
+        ResponseEntity<PupilDTO> responseEntity = pupilController.updatePupil(1L, pupilDTO, null);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
     }
 
     @Test
-    void givenExistingPupil_whenUpdatePupil_thenThrowPupilNotFoundExceptionAndHttpStatusNotFound() throws PupilNotFoundException {
+    void givenExistingPupil_whenUpdatePupil_thenPropagatePupilNotFoundException() throws PupilNotFoundException {
         PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov");
 
-        doThrow(new PupilNotFoundException("No pupil found with ID: " + 1L)).when(pupilService).updatePupil(1L, pupilDTO);
+        doThrow(new PupilNotFoundException(1L)).when(pupilService).updatePupil(1L, pupilDTO);
 
-        ResponseEntity<PupilDTO> responseEntity = pupilController.updatePupil(1L, pupilDTO);
-        assertNotNull(responseEntity);
-        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        assertThrows(PupilNotFoundException.class, () -> pupilController.updatePupil(1L, pupilDTO, null));
+    }
+
+    @Test
+    void givenIfMatchHeader_whenUpdatePupil_thenPassTaggedVersionToService() {
+        PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov");
+        pupilDTO.setVersion(7L);
+
+        ResponseEntity<PupilDTO> responseEntity = pupilController.updatePupil(1L, pupilDTO, "W/\"pupil-1-a\"");
+
+        assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
+        assertEquals(10L, pupilDTO.getVersion());
+        verify(pupilService).updatePupil(1L, pupilDTO);
+    }
+
+    @Test
+    void givenIfMatchForAnotherPupil_whenUpdatePupil_thenThrowOptimisticLockingFailure() {
+        PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov");
+
+        assertThrows(OptimisticLockingFailureException.class, () -> pupilController.updatePupil(1L, pupilDTO, "\"pupil-2-0\""));
+        verify(pupilService, never()).updatePupil(anyLong(), any());
     }
 
     @Test
@@ -117,11 +224,95 @@ class PupilControllerTest {
     }
 
     @Test
-    void givenExistingPupil_whenDeletePupilById_thenThrowPupilNotFoundExceptionAndHttpStatusNotFound() throws PupilNotFoundException {
-        doThrow(new PupilNotFoundException("No pupil found with ID: " + 1L)).when(pupilService).deletePupil(1L);
+    void givenExistingPupil_whenDeletePupilById_thenPropagatePupilNotFoundException() throws PupilNotFoundException {
+        doThrow(new PupilNotFoundException(1L)).when(pupilService).deletePupil(1L);
 
-        ResponseEntity<PupilDTO> responseEntity = pupilController.deletePupil(1L);
+        assertThrows(PupilNotFoundException.class, () -> pupilController.deletePupil(1L));
+    }
+
+    @Test
+    void givenNdjsonFormat_whenExportPupils_thenStreamPupilsToResponse() throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        pupilController.exportPupils("ndjson", request, response);
+
+        verify(response).setContentType("application/x-ndjson");
+        verify(request).setAttribute(anyString(), eq(Boolean.TRUE));
+        verify(pupilService).exportPupils(ExportFormat.NDJSON, outputStream);
+    }
+
+    @Test
+    void givenUnsupportedFormat_whenExportPupils_thenPropagateIllegalArgumentException() throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        assertThrows(IllegalArgumentException.class, () -> pupilController.exportPupils("xml", mock(HttpServletRequest.class), response));
+
+        verify(pupilService, never()).exportPupils(any(), any());
+    }
+
+    @Test
+    void givenPupils_whenAddPupils_thenReturnPerItemResultsAndHttpStatusOk() {
+        List<PupilDTO> pupils = List.of(new PupilDTO(null, "Ivan", "Ivanov"), new PupilDTO(null, "Petr", "Petrov"));
+        List<BatchResultDTO> results = List.of(
+                new BatchResultDTO(0, 1L, BatchResultDTO.Status.CREATED, null),
+                new BatchResultDTO(1, null, BatchResultDTO.Status.FAILED, "broken row"));
+
+        when(pupilService.addPupils(pupils)).thenReturn(results);
+
+        ResponseEntity<List<BatchResultDTO>> responseEntity = pupilController.addPupils(pupils);
         assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(results, responseEntity.getBody());
+    }
+
+    @Test
+    void givenOversizedBatch_whenDeletePupils_thenPropagateIllegalArgumentException() {
+        when(pupilService.deletePupils(List.of(1L))).thenThrow(new IllegalArgumentException("Batch size exceeds the limit"));
+
+        assertThrows(IllegalArgumentException.class, () -> pupilController.deletePupils(List.of(1L)));
+    }
+
+    @Test
+    void givenExistingPupil_whenGetPupilByIdAsync_thenCompletePupilAndHttpStatusOk() {
+        PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov");
+
+        when(pupilService.getPupilById(1L)).thenReturn(Optional.of(pupilDTO));
+
+        CompletableFuture<ResponseEntity<PupilDTO>> future = pupilController.getPupilByIdAsync(1L);
+        ResponseEntity<PupilDTO> responseEntity = future.join();
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(pupilDTO, responseEntity.getBody());
+    }
+
+    @Test
+    void givenNotExistingPupil_whenGetPupilByIdAsync_thenCompleteWithHttpStatusNotFound() {
+        when(pupilService.getPupilById(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<PupilDTO> responseEntity = pupilController.getPupilByIdAsync(1L).join();
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenExistingPupils_whenGetAllPupilsAsync_thenSetDeferredPage() {
+        PageDTO<PupilDTO> page = new PageDTO<>(List.of(new PupilDTO(1L, "Ivan", "Ivanov")), null);
+
+        when(pupilService.getPupilPage(null, 100)).thenReturn(page);
+
+        DeferredResult<ResponseEntity<PageDTO<PupilDTO>>> deferredResult = pupilController.getAllPupilsAsync(null, 100);
+        assertTrue(deferredResult.hasResult());
+        ResponseEntity<?> responseEntity = (ResponseEntity<?>) deferredResult.getResult();
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void givenInvalidCursor_whenGetAllPupilsAsync_thenSetDeferredError() {
+        when(pupilService.getPupilPage("broken", 100)).thenThrow(new IllegalArgumentException("Invalid cursor: broken"));
+
+        DeferredResult<ResponseEntity<PageDTO<PupilDTO>>> deferredResult = pupilController.getAllPupilsAsync("broken", 100);
+        assertInstanceOf(IllegalArgumentException.class, deferredResult.getResult());
+    }
+}
@@ -5,16 +5,27 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.SchoolDTO;
 import ru.evlitvin.exception.SchoolNotFoundException;
 import ru.evlitvin.service.SchoolService;
+import ru.evlitvin.util.execution.AsyncDbExecutor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class SchoolControllerTest {
@@ -25,53 +36,97 @@ class SchoolControllerTest {
     @Mock
     private SchoolService schoolService;
 
+    @Mock
+    private WebRequest webRequest;
+
+    @Spy
+    private AsyncDbExecutor asyncDbExecutor = new AsyncDbExecutor(Runnable::run, 1000);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
     }
 
     @Test
-    void givenExistingSchool_whenGetSchoolById_thenReturnSchoolAndHttpStatusOk() throws SchoolNotFoundException {
-        SchoolDTO schoolDTO = new SchoolDTO(1L, "School # 1", "School # 1 address");
+    void givenExistingSchool_whenGetSchoolById_thenReturnSchoolWithETagOfReturnedVersion() throws SchoolNotFoundException {
+        SchoolDTO schoolDTO = new SchoolDTO(1L, "School # 1", "School # 1 address", 3L);
 
-        when(schoolService.getSchoolById(1L)).thenReturn(schoolDTO);
+        when(schoolService.getSchoolById(1L)).thenReturn(Optional.of(schoolDTO));
 
-        ResponseEntity<SchoolDTO> responseEntity = schoolController.getSchoolById(1L);
+        ResponseEntity<SchoolDTO> responseEntity = schoolController.getSchoolById(1L, webRequest);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(schoolDTO, responseEntity.getBody());
+        assertEquals("\"school-1-3\"", responseEntity.getHeaders().getETag());
+        verify(schoolService, never()).getSchoolETag(1L);
     }
 
     @Test
-    void givenNotExistingSchool_whenGetSchoolById_thenThrowSchoolNotFoundExceptionHttpStatusNotFound() throws SchoolNotFoundException {
-        when(schoolService.getSchoolById(1L)).thenThrow(new SchoolNotFoundException("No school found with ID: " + 1));
+    void givenNotExistingSchool_whenGetSchoolById_thenHttpStatusNotFound() {
+        when(schoolService.getSchoolById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<SchoolDTO> responseEntity = schoolController.getSchoolById(1L);
+        ResponseEntity<SchoolDTO> responseEntity = schoolController.getSchoolById(1L, webRequest);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
 
+    @Test
+    void givenIfNoneMatchForNotExistingSchool_whenGetSchoolById_thenHttpStatusNotFoundWithoutLoadingSchool() {
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"school-1-0\"");
+        when(schoolService.getSchoolETag(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<SchoolDTO> responseEntity = schoolController.getSchoolById(1L, webRequest);
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        verify(schoolService, never()).getSchoolById(1L);
+    }
+
+    @Test
+    void givenMatchingETag_whenGetSchoolById_thenHttpStatusNotModifiedWithoutLoadingSchool() {
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("W/\"school-1-3\"");
+        when(schoolService.getSchoolETag(1L)).thenReturn(Optional.of("\"school-1-3\""));
+
+        ResponseEntity<SchoolDTO> responseEntity = schoolController.getSchoolById(1L, webRequest);
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals("\"school-1-3\"", responseEntity.getHeaders().getETag());
+        assertNull(responseEntity.getBody());
+        verify(schoolService, never()).getSchoolById(1L);
+    }
+
+    @Test
+    void givenStaleETag_whenGetSchoolById_thenReturnSchoolWithCurrentETag() {
+        SchoolDTO schoolDTO = new SchoolDTO(1L, "School # 1", "School # 1 address", 3L);
+
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"school-1-2\"");
+        when(schoolService.getSchoolETag(1L)).thenReturn(Optional.of("\"school-1-3\""));
+        when(schoolService.getSchoolById(1L)).thenReturn(Optional.of(schoolDTO));
+
+        ResponseEntity<SchoolDTO> responseEntity = schoolController.getSchoolById(1L, webRequest);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"school-1-3\"", responseEntity.getHeaders().getETag());
+    }
+
     @Test
     void givenExistingSchools_whenGetAllSchools_thenReturnListOfSchoolsAndHttpStatusOk() throws SchoolNotFoundException {
         List<SchoolDTO> schools = new ArrayList<>();
         schools.add(new SchoolDTO(1L, "School # 1", "School # 1 address"));
         schools.add(new SchoolDTO(2L, "School # 2", "School # 2 address"));
 
-        when(schoolService.getAllSchools()).thenReturn(schools);
+        PageDTO<SchoolDTO> page = new PageDTO<>(schools, null);
 
-        ResponseEntity<List<SchoolDTO>> responseEntity = schoolController.getAllSchools();
+        when(schoolService.getSchoolPage(null, 100)).thenReturn(page);
+
+        ResponseEntity<PageDTO<SchoolDTO>> responseEntity = schoolController.getAllSchools(null, 100);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-        assertEquals(schools, responseEntity.getBody());
+        assertEquals(schools, responseEntity.getBody().getItems());
+        assertNull(responseEntity.getBody().getNextCursor());
     }
 
     @Test
-    void givenNotExistingSchools_whenGetAllSchools_thenThrowSchoolNotFoundExceptionHttpStatusNotFound() throws SchoolNotFoundException {
-        when(schoolService.getAllSchools()).thenThrow(new SchoolNotFoundException("No school found with ID:"  + 1));
+    void givenInvalidCursor_whenGetAllSchools_thenPropagateIllegalArgumentException() {
+        when(schoolService.getSchoolPage("broken", 100)).thenThrow(new IllegalArgumentException("Invalid cursor: broken"));
 
-        ResponseEntity<List<SchoolDTO>> responseEntity = schoolController.getAllSchools();
-        assertNotNull(responseEntity);
-        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        assertThrows(IllegalArgumentException.class, () -> schoolController.getAllSchools("broken", 100));
     }
 
     @Test
@@ -86,14 +141,12 @@ class SchoolControllerTest {
     }
 
     @Test
-    void givenSchoolFieldsEmpty_whenCreateSchool_thenThrowSchoolNotFoundExceptionAngHttpResponseBadRequest() throws SchoolNotFoundException {
+    void givenSchoolFieldsEmpty_whenCreateSchool_thenPropagateIllegalArgumentException() {
         SchoolDTO schoolDTO = new SchoolDTO(1L, "School # 1", "School # 1 address");
 
-        doThrow(new SchoolNotFoundException("No school found with ID:"  + 1)).when(schoolService).createSchool(schoolDTO);
+        doThrow(new IllegalArgumentException("School fields are required")).when(schoolService).createSchool(schoolDTO);
 
-        ResponseEntity<SchoolDTO> responseEntity = schoolController.createSchool(schoolDTO);
-        assertNotNull(responseEntity);
-        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        assertThrows(IllegalArgumentException.class, () -> schoolController.createSchool(schoolDTO));
     }
 
     @Test
@@ -102,7 +155,7 @@ class SchoolControllerTest {
 
         doNothing().when(schoolService).updateSchool(1L, schoolDTO);
 
-        ResponseEntity<SchoolDTO> responseEntity = schoolController.updateSchool(1L, schoolDTO);
+        ResponseEntity<SchoolDTO> responseEntity = schoolController.updateSchool(1L, schoolDTO, null);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
     }
@@ -117,11 +170,72 @@ class SchoolControllerTest {
     }
 
     @Test
-    void givenSchoolDoesNotExist_whenDeleteSchool_thenThrowSchoolNotFoundExceptionAndHttpStatusNotFound() throws SchoolNotFoundException {
-        doThrow(new SchoolNotFoundException("No school found with ID:"  + 1)).when(schoolService).deleteSchool(1L);
+    void givenSchoolDoesNotExist_whenDeleteSchool_thenPropagateSchoolNotFoundException() throws SchoolNotFoundException {
+        doThrow(new SchoolNotFoundException(1L)).when(schoolService).deleteSchool(1L);
 
-        ResponseEntity<SchoolDTO> responseEntity = schoolController.deleteSchool(1L);
-        assertNotNull(responseEntity);
+        assertThrows(SchoolNotFoundException.class, () -> schoolController.deleteSchool(1L));
+    }
+
+    @Test
+    void givenExistingSchool_whenGetSchoolByIdAsync_thenCompleteSchoolAndHttpStatusOk() {
+        SchoolDTO schoolDTO = new SchoolDTO(1L, "School # 1", "School # 1 address");
+
+        when(schoolService.getSchoolById(1L)).thenReturn(Optional.of(schoolDTO));
+
+        CompletableFuture<ResponseEntity<SchoolDTO>> future = schoolController.getSchoolByIdAsync(1L);
+        ResponseEntity<SchoolDTO> responseEntity = future.join();
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(schoolDTO, responseEntity.getBody());
+    }
+
+    @Test
+    void givenNotExistingSchool_whenGetSchoolByIdAsync_thenCompleteWithHttpStatusNotFound() {
+        when(schoolService.getSchoolById(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<SchoolDTO> responseEntity = schoolController.getSchoolByIdAsync(1L).join();
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenExistingSchools_whenGetAllSchoolsAsync_thenSetDeferredPage() {
+        PageDTO<SchoolDTO> page = new PageDTO<>(List.of(new SchoolDTO(1L, "School # 1", "School # 1 address")), null);
+
+        when(schoolService.getSchoolPage(null, 100)).thenReturn(page);
+
+        DeferredResult<ResponseEntity<PageDTO<SchoolDTO>>> deferredResult = schoolController.getAllSchoolsAsync(null, 100);
+        assertTrue(deferredResult.hasResult());
+        ResponseEntity<?> responseEntity = (ResponseEntity<?>) deferredResult.getResult();
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+
+    @Test
+    void givenInvalidCursor_whenGetAllSchoolsAsync_thenSetDeferredError() {
+        when(schoolService.getSchoolPage("broken", 100)).thenThrow(new IllegalArgumentException("Invalid cursor: broken"));
+
+        DeferredResult<ResponseEntity<PageDTO<SchoolDTO>>> deferredResult = schoolController.getAllSchoolsAsync("broken", 100);
+        assertInstanceOf(IllegalArgumentException.class, deferredResult.getResult());
+    }
+
+    @Test
+    void givenPartialSchool_whenPatchSchool_thenHttpStatusNoContent() {
+        SchoolDTO schoolDTO = new SchoolDTO(null, "School # 2", null);
+
+        ResponseEntity<SchoolDTO> responseEntity = schoolController.patchSchool(1L, schoolDTO, "W/\"school-1-3\"");
+
+        assertEquals(HttpStatus.NO_CONTENT, responseEntity.getStatusCode());
+        assertEquals(3L, schoolDTO.getVersion());
+        verify(schoolService).patchSchool(1L, schoolDTO);
+    }
+
+    @Test
+    void givenIfMatchWithExtraTagParts_whenUpdateSchool_thenThrowOptimisticLockingFailure() {
+        SchoolDTO schoolDTO = new SchoolDTO(null, "School # 2", null);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> schoolController.updateSchool(1L, schoolDTO, "\"school-1-3.2.9.1\""));
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> schoolController.updateSchool(1L, schoolDTO, "\"school-1-03\""));
+        verify(schoolService, never()).updateSchool(anyLong(), any());
+    }
+}
@@ -5,14 +5,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.TeacherDTO;
 import ru.evlitvin.exception.TeacherNotFoundException;
 import ru.evlitvin.service.TeacherService;
+import ru.evlitvin.util.execution.AsyncDbExecutor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,53 +32,97 @@ class TeacherControllerTest {
     @Mock
     private TeacherService teacherService;
 
+    @Mock
+    private WebRequest webRequest;
+
+    @Spy
+    private AsyncDbExecutor asyncDbExecutor = new AsyncDbExecutor(Runnable::run, 1000);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
     }
 
     @Test
-    void givenExistingTeacher_whenGetTeacherById_thenReturnTeacherAndHttpStatusOk() throws TeacherNotFoundException {
-        TeacherDTO teacherDTO = new TeacherDTO(1L, "Ivan", "Ivanov", 1L);
+    void givenExistingTeacher_whenGetTeacherById_thenReturnTeacherWithETagOfReturnedVersion() throws TeacherNotFoundException {
+        TeacherDTO teacherDTO = new TeacherDTO(1L, "Ivan", "Ivanov", 1L, 3L);
 
-        when(teacherService.getTeacherById(1L)).thenReturn(teacherDTO);
+        when(teacherService.getTeacherById(1L)).thenReturn(Optional.of(teacherDTO));
 
-        ResponseEntity<TeacherDTO> responseEntity = teacherController.getTeacherById(1L);
+        ResponseEntity<TeacherDTO> responseEntity = teacherController.getTeacherById(1L, webRequest);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(teacherDTO, responseEntity.getBody());
+        assertEquals("\"teacher-1-3\"", responseEntity.getHeaders().getETag());
+        verify(teacherService, never()).getTeacherETag(1L);
     }
 
     @Test
-    void givenNotExistingTeacher_whenGetTeacherById_thenThrowTeacherNotFoundExceptionHttpStatusNotFound() throws TeacherNotFoundException {
-        when(teacherService.getTeacherById(1L)).thenThrow(new TeacherNotFoundException("No teacher found with ID: " + 1));
+    void givenNotExistingTeacher_whenGetTeacherById_thenHttpStatusNotFound() {
+        when(teacherService.getTeacherById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<TeacherDTO> responseEntity = teacherController.getTeacherById(1L);
+        ResponseEntity<TeacherDTO> responseEntity = teacherController.getTeacherById(1L, webRequest);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
 
+    @Test
+    void givenIfNoneMatchForNotExistingTeacher_whenGetTeacherById_thenHttpStatusNotFoundWithoutLoadingTeacher() {
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"teacher-1-0\"");
+        when(teacherService.getTeacherETag(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<TeacherDTO> responseEntity = teacherController.getTeacherById(1L, webRequest);
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        verify(teacherService, never()).getTeacherById(1L);
+    }
+
+    @Test
+    void givenMatchingETag_whenGetTeacherById_thenHttpStatusNotModifiedWithoutLoadingTeacher() {
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("W/\"teacher-1-3\"");
+        when(teacherService.getTeacherETag(1L)).thenReturn(Optional.of("\"teacher-1-3\""));
+
+        ResponseEntity<TeacherDTO> responseEntity = teacherController.getTeacherById(1L, webRequest);
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals("\"teacher-1-3\"", responseEntity.getHeaders().getETag());
+        assertNull(responseEntity.getBody());
+        verify(teacherService, never()).getTeacherById(1L);
+    }
+
+    @Test
+    void givenStaleETag_whenGetTeacherById_thenReturnTeacherWithCurrentETag() {
+        TeacherDTO teacherDTO = new TeacherDTO(1L, "Ivan", "Ivanov", 1L, 3L);
+
+        when(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"teacher-1-2\"");
+        when(teacherService.getTeacherETag(1L)).thenReturn(Optional.of("\"teacher-1-3\""));
+        when(teacherService.getTeacherById(1L)).thenReturn(Optional.of(teacherDTO));
+
+        ResponseEntity<TeacherDTO> responseEntity = teacherController.getTeacherById(1L, webRequest);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"teacher-1-3\"", responseEntity.getHeaders().getETag());
+    }
+
     @Test
     void givenExistingTeachers_whenGetAllTeachers_thenReturnListOfTeachersAndHttpStatusOk() throws TeacherNotFoundException {
         List<TeacherDTO> teachers = new ArrayList<>();
         teachers.add(new TeacherDTO(1L, "Ivan", "Ivanov", 1L));
         teachers.add(new TeacherDTO(2L, "Petr", "Petrov", 1L));
 
-        when(teacherService.getAllTeachers()).thenReturn(teachers);
+        PageDTO<TeacherDTO> page = new PageDTO<>(teachers, "Mg");
+
+        when(teacherService.getTeacherPage(null, 2)).thenReturn(page);
 
-        ResponseEntity<List<TeacherDTO>> responseEntity = teacherController.getAllTeachers();
+        ResponseEntity<PageDTO<TeacherDTO>> responseEntity = teacherController.getAllTeachers(null, 2);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-        assertEquals(teachers, responseEntity.getBody());
+        assertEquals(teachers, responseEntity.getBody().getItems());
+        assertEquals("Mg", responseEntity.getBody().getNextCursor());
     }
 
     @Test
-    void givenNotExistingTeachers_whenGetAllTeachers_thenThrowTeacherNotFoundExceptionHttpStatusNotFound() throws TeacherNotFoundException {
-        when(teacherService.getAllTeachers()).thenThrow(new TeacherNotFoundException("No teacher found with ID:"  + 1));
+    void givenInvalidCursor_whenGetAllTeachers_thenPropagateIllegalArgumentException() {
+        when(teacherService.getTeacherPage("broken", 100)).thenThrow(new IllegalArgumentException("Invalid cursor: broken"));
 
-        ResponseEntity<List<TeacherDTO>> responseEntity = teacherController.getAllTeachers();
-        assertNotNull(responseEntity);
-        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        assertThrows(IllegalArgumentException.class, () -> teacherController.getAllTeachers("broken", 100));
     }
 
     @Test
@@ -86,14 +137,12 @@ class TeacherControllerTest {
     }
 
     @Test
-    void givenTeacherFieldsEmpty_whenCreateTeacher_thenThrowTeacherNotFoundExceptionAngHttpResponseBadRequest() throws TeacherNotFoundException {
+    void givenTeacherFieldsEmpty_whenCreateTeacher_thenPropagateIllegalArgumentException() {
         TeacherDTO teacherDTO = new TeacherDTO(1L, "Ivan", "Ivanov", 1L);
 
-        doThrow(new TeacherNotFoundException("No teacher found with ID:"  + 1)).when(teacherService).createTeacher(teacherDTO);
+        doThrow(new IllegalArgumentException("Teacher fields are required")).when(teacherService).createTeacher(teacherDTO);
 
-        ResponseEntity<TeacherDTO> responseEntity = teacherController.createTeacher(teacherDTO);
-        assertNotNull(responseEntity);
-        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        assertThrows(IllegalArgumentException.class, () -> teacherController.createTeacher(teacherDTO));
     }
 
     @Test
@@ -102,7 +151,7 @@ class TeacherControllerTest {
 
         doNothing().when(teacherService).updateTeacher(1L, teacherDTO);
 
-        ResponseEntity<TeacherDTO> responseEntity = teacherController.updateTeacher(1L, teacherDTO);
+        ResponseEntity<TeacherDTO> responseEntity = teacherController.updateTeacher(1L, teacherDTO, null);
         assertNotNull(responseEntity);
         assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
     }
@@ -117,12 +166,40 @@ class TeacherControllerTest {
     }
 
     @Test
-    void givenTeacherDoesNotExist_whenDeleteTeacher_thenThrowTeacherNotFoundExceptionAndHttpStatusNotFound() throws TeacherNotFoundException {
-        doThrow(new TeacherNotFoundException("No teacher found with ID:"  + 1)).when(teacherService).deleteTeacher(1L);
+    void givenTeacherDoesNotExist_whenDeleteTeacher_thenPropagateTeacherNotFoundException() throws TeacherNotFoundException {
+        doThrow(new TeacherNotFoundException(1L)).when(teacherService).deleteTeacher(1L);
 
-        ResponseEntity<TeacherDTO> responseEntity = teacherController.deleteTeacher(1L);
-        assertNotNull(responseEntity);
+        assertThrows(TeacherNotFoundException.class, () -> teacherController.deleteTeacher(1L));
+    }
+
+    @Test
+    void givenExistingTeacher_whenGetTeacherByIdAsync_thenCompleteTeacherAndHttpStatusOk() {
+        TeacherDTO teacherDTO = new TeacherDTO(1L, "Ivan", "Ivanov", 1L);
+
+        when(teacherService.getTeacherById(1L)).thenReturn(Optional.of(teacherDTO));
+
+        CompletableFuture<ResponseEntity<TeacherDTO>> future = teacherController.getTeacherByIdAsync(1L);
+        ResponseEntity<TeacherDTO> responseEntity = future.join();
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(teacherDTO, responseEntity.getBody());
+    }
+
+    @Test
+    void givenNotExistingTeacher_whenGetTeacherByIdAsync_thenCompleteWithHttpStatusNotFound() {
+        when(teacherService.getTeacherById(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<TeacherDTO> responseEntity = teacherController.getTeacherByIdAsync(1L).join();
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
 
-}
\ No newline at end of file
+    @Test
+    void givenMatchingTeachers_whenSearchTeachers_thenReturnPageAndHttpStatusOk() {
+        PageDTO<TeacherDTO> page = new PageDTO<>(List.of(new TeacherDTO(1L, "Anna", "Smirnova", 2L)), null);
+
+        when(teacherService.searchTeachers("smi", null, 20)).thenReturn(page);
+
+        ResponseEntity<PageDTO<TeacherDTO>> responseEntity = teacherController.searchTeachers("smi", null, 20);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(page, responseEntity.getBody());
+    }
+}
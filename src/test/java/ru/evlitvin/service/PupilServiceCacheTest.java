@@ -0,0 +1,132 @@
+package ru.evlitvin.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.evlitvin.config.CacheConfig;
+import ru.evlitvin.dto.CacheStatsDTO;
+import ru.evlitvin.dto.PupilDTO;
+import ru.evlitvin.entity.Pupil;
+import ru.evlitvin.repository.PupilRepository;
+import ru.evlitvin.util.cache.EntityCacheStatistics;
+import ru.evlitvin.util.mapper.PupilMapper;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(PupilServiceCacheTest.Config.class)
+class PupilServiceCacheTest {
+
+    @Autowired
+    private PupilService pupilService;
+
+    @Autowired
+    private PupilRepository pupilRepository;
+
+    @Autowired
+    private PupilMapper pupilMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityCacheStatistics entityCacheStatistics;
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class Config {
+
+        @Bean
+        PupilRepository pupilRepository() {
+            return mock(PupilRepository.class);
+        }
+
+        @Bean
+        PupilMapper pupilMapper() {
+            return mock(PupilMapper.class);
+        }
+
+        @Bean
+        PupilService pupilService(PupilMapper pupilMapper, PupilRepository pupilRepository) {
+            return new PupilService(pupilMapper, pupilRepository, null, null);
+        }
+
+        @Bean
+        EntityCacheStatistics entityCacheStatistics(CacheManager cacheManager) {
+            return new EntityCacheStatistics(cacheManager);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        reset(pupilRepository, pupilMapper);
+        cacheManager.getCache(CacheConfig.PUPILS).clear();
+
+        Pupil pupil = new Pupil(1L, "Ivan", "Ivanov");
+        when(pupilRepository.findById(1L)).thenReturn(Optional.of(pupil));
+        when(pupilMapper.toPupilDTO(pupil)).thenReturn(new PupilDTO(1L, "Ivan", "Ivanov"));
+    }
+
+    @Test
+    void givenCachedPupil_whenGetPupilByIdTwice_thenQueryRepositoryOnce() {
+        PupilDTO first = pupilService.getPupilById(1L).orElseThrow();
+        PupilDTO second = pupilService.getPupilById(1L).orElseThrow();
+
+        assertSame(first, second);
+        verify(pupilRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void givenMissingPupil_whenGetPupilByIdTwice_thenDoNotCacheAbsence() {
+        when(pupilRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(pupilService.getPupilById(2L).isEmpty());
+        assertTrue(pupilService.getPupilById(2L).isEmpty());
+
+        verify(pupilRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void givenCachedPupil_whenUpdatePupil_thenNextGetPupilByIdQueriesRepositoryAgain() {
+        pupilService.getPupilById(1L);
+
+        pupilService.updatePupil(1L, new PupilDTO(null, "Petr", null));
+        pupilService.getPupilById(1L);
+
+        verify(pupilRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void givenCachedPupil_whenDeletePupil_thenEvictPupilFromCache() {
+        pupilService.getPupilById(1L);
+
+        pupilService.deletePupil(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.PUPILS).get(1L));
+    }
+
+    @Test
+    void givenCacheHitsAndMisses_whenGetSnapshot_thenReportPupilCacheStatistics() {
+        long hitsBefore = pupilStats().getHitCount();
+
+        pupilService.getPupilById(1L);
+        pupilService.getPupilById(1L);
+
+        assertEquals(hitsBefore + 1, pupilStats().getHitCount());
+        assertEquals(1, pupilStats().getSize());
+    }
+
+    private CacheStatsDTO pupilStats() {
+        return entityCacheStatistics.getSnapshot().stream()
+                .filter(stats -> CacheConfig.PUPILS.equals(stats.getCacheName()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -1,20 +1,35 @@
 package ru.evlitvin.service;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.PupilDTO;
 import ru.evlitvin.entity.Pupil;
 import ru.evlitvin.exception.PupilNotFoundException;
 import ru.evlitvin.repository.PupilRepository;
+import ru.evlitvin.repository.PupilSearchHit;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.export.JsonExportWriter;
 import ru.evlitvin.util.mapper.PupilMapper;
+import ru.evlitvin.util.pagination.Cursor;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class PupilServiceTest {
@@ -25,6 +40,9 @@ class PupilServiceTest {
     @Mock
     private PupilMapper pupilMapper;
 
+    @Spy
+    private JsonExportWriter jsonExportWriter = new JsonExportWriter(entityManager());
+
     @InjectMocks
     private PupilService pupilService;
 
@@ -41,48 +59,18 @@ class PupilServiceTest {
         when(pupilMapper.toPupilDTO(pupil)).thenReturn(pupilDTO);
         when(pupilRepository.findById(1L)).thenReturn(Optional.of(pupil));
 
-        PupilDTO returnedPupil = pupilService.getPupilById(1L);
+        Optional<PupilDTO> returnedPupil = pupilService.getPupilById(1L);
 
-        assertNotNull(returnedPupil);
+        assertEquals(Optional.of(pupilDTO), returnedPupil);
         verify(pupilRepository).findById(1L);
     }
 
     @Test
-    void givenNotExistingPupil_whenGetPupilById_thenThrowPupilNotFoundException() {
+    void givenNotExistingPupil_whenGetPupilById_thenReturnEmptyOptional() {
         when(pupilRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(PupilNotFoundException.class, () -> pupilService.getPupilById(1L));
-    }
-
-    @Test
-     void givenExistingPupils_whenGetAllPupils_thenReturnListOfPupils() {
-        Pupil pupilOne = new Pupil();
-        pupilOne.setFirstName("Ivan");
-        pupilOne.setLastName("Ivanov");
-
-        Pupil pupilTwo = new Pupil();
-        pupilTwo.setFirstName("Petr");
-        pupilTwo.setLastName("Petrov");
-
-        PupilDTO pupilDTOOne = new PupilDTO();
-        pupilDTOOne.setFirstName("Ivan");
-        pupilDTOOne.setLastName("Ivanov");
-
-        PupilDTO pupilDTOTwo = new PupilDTO();
-        pupilDTOTwo.setFirstName("Petr");
-        pupilDTOTwo.setLastName("Petrov");
-
-        when(pupilRepository.findAll()).thenReturn(List.of(pupilOne, pupilTwo));
-        when(pupilMapper.toPupilDTO(pupilOne)).thenReturn(pupilDTOOne);
-        when(pupilMapper.toPupilDTO(pupilTwo)).thenReturn(pupilDTOTwo);
-
-        List<PupilDTO> pupilDTOList = pupilService.getAllPupils();
-
-        assertNotNull(pupilDTOList);
-        assertFalse(pupilDTOList.isEmpty());
-        assertEquals(2, pupilDTOList.size());
-        verify(pupilRepository).findAll();
-        verify(pupilMapper).toPupilDTO(pupilOne);
+        assertTrue(pupilService.getPupilById(1L).isEmpty());
+        verifyNoInteractions(pupilMapper);
     }
 
     @Test
@@ -116,6 +104,21 @@ class PupilServiceTest {
         assertEquals("Ivanov", pupil.getLastName());
     }
 
+    @Test
+    void givenStaleVersion_whenUpdatePupil_thenThrowOptimisticLockingFailureWithoutSaving() {
+        PupilDTO pupilDTO = new PupilDTO(1L, "Ivan", "Ivanov");
+        pupilDTO.setVersion(1L);
+
+        Pupil pupil = new Pupil(1L, "Petr", "Petrov");
+        pupil.setVersion(2L);
+
+        when(pupilRepository.findById(1L)).thenReturn(Optional.of(pupil));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> pupilService.updatePupil(1L, pupilDTO));
+        assertEquals("Petr", pupil.getFirstName());
+        verify(pupilRepository, never()).save(any());
+    }
+
     @Test
     void givenExistingPupil_whenUpdatePupilWithoutFirstName_thenUpdatePupil() {
         PupilDTO pupilDTO = new PupilDTO();
@@ -166,4 +169,103 @@ class PupilServiceTest {
         verify(pupilRepository, times(1)).deleteById(1L);
     }
 
-}
\ No newline at end of file
+    @Test
+    void givenMoreRowsThanLimit_whenGetPupilPage_thenReturnPageWithNextCursor() {
+        PupilDTO pupilOne = new PupilDTO(1L, "Ivan", "Ivanov", 0L);
+        PupilDTO pupilTwo = new PupilDTO(2L, "Petr", "Petrov", 0L);
+        PupilDTO pupilThree = new PupilDTO(3L, "Sidor", "Sidorov", 0L);
+
+        when(pupilRepository.findDTOsAfter(0L, Limit.of(3))).thenReturn(List.of(pupilOne, pupilTwo, pupilThree));
+
+        PageDTO<PupilDTO> page = pupilService.getPupilPage(null, 2);
+
+        assertEquals(List.of(pupilOne, pupilTwo), page.getItems());
+        assertEquals(2L, Cursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void givenLastPage_whenGetPupilPage_thenReturnPageWithoutNextCursor() {
+        when(pupilRepository.findDTOsAfter(2L, Limit.of(3))).thenReturn(List.of(new PupilDTO(3L, "Sidor", "Sidorov", 0L)));
+
+        PageDTO<PupilDTO> page = pupilService.getPupilPage(Cursor.encode(2L), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void givenInvalidCursor_whenGetPupilPage_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> pupilService.getPupilPage("not-a-cursor", 2));
+    }
+
+    @Test
+    void givenMoreHitsThanLimit_whenSearchPupils_thenReturnRankedPageWithOffsetCursor() {
+        PupilSearchHit ivanov = pupilHit(1L, "Ivan", "Ivanov");
+        PupilSearchHit ivanova = pupilHit(2L, "Maria", "Ivanova");
+        PupilSearchHit ivashov = pupilHit(3L, "Petr", "Ivashov");
+
+        when(pupilRepository.search("iva:*", "iva", 3, 0L)).thenReturn(List.of(ivanov, ivanova, ivashov));
+
+        PageDTO<PupilDTO> page = pupilService.searchPupils(" Iva ", null, 2);
+
+        assertEquals(List.of(1L, 2L), page.getItems().stream().map(PupilDTO::getId).toList());
+        assertEquals("Ivanova", page.getItems().get(1).getLastName());
+        assertEquals(2L, Cursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void givenNextCursor_whenSearchPupils_thenContinueFromOffset() {
+        PupilSearchHit ivanov = pupilHit(3L, "Ivan", "Ivanov");
+
+        when(pupilRepository.search("ivan:* & ivanov:*", "ivan ivanov", 3, 2L)).thenReturn(List.of(ivanov));
+
+        PageDTO<PupilDTO> page = pupilService.searchPupils("Ivan Ivanov", Cursor.encode(2L), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void givenBlankQuery_whenSearchPupils_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> pupilService.searchPupils("  ", null, 20));
+        verifyNoInteractions(pupilRepository);
+    }
+
+    @Test
+    void givenExistingPupils_whenExportPupilsAsNdjson_thenWriteOnePupilPerLine() throws IOException {
+        Pupil pupilOne = new Pupil(1L, "Ivan", "Ivanov");
+        Pupil pupilTwo = new Pupil(2L, "Petr", "Petrov");
+
+        PupilDTO pupilDTOOne = new PupilDTO(1L, "Ivan", "Ivanov");
+        pupilDTOOne.setVersion(0L);
+        PupilDTO pupilDTOTwo = new PupilDTO(2L, "Petr", "Petrov");
+        pupilDTOTwo.setVersion(3L);
+
+        when(pupilRepository.streamAll()).thenReturn(Stream.of(pupilOne, pupilTwo));
+        when(pupilMapper.toPupilDTO(pupilOne)).thenReturn(pupilDTOOne);
+        when(pupilMapper.toPupilDTO(pupilTwo)).thenReturn(pupilDTOTwo);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pupilService.exportPupils(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"firstName\":\"Ivan\",\"lastName\":\"Ivanov\",\"version\":0}", lines[0]);
+        assertEquals("{\"id\":2,\"firstName\":\"Petr\",\"lastName\":\"Petrov\",\"version\":3}", lines[1]);
+    }
+
+    private static PupilSearchHit pupilHit(Long id, String firstName, String lastName) {
+        PupilSearchHit hit = mock(PupilSearchHit.class);
+        when(hit.getId()).thenReturn(id);
+        when(hit.getFirstName()).thenReturn(firstName);
+        when(hit.getLastName()).thenReturn(lastName);
+        when(hit.getVersion()).thenReturn(0L);
+        return hit;
+    }
+
+    private static EntityManager entityManager() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        return entityManager;
+    }
+}
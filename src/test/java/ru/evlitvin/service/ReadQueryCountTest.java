@@ -0,0 +1,319 @@
+package ru.evlitvin.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.context.request.WebRequest;
+import ru.evlitvin.dto.PageDTO;
+import ru.evlitvin.dto.PupilDTO;
+import ru.evlitvin.dto.SchoolDTO;
+import ru.evlitvin.dto.TeacherDTO;
+import ru.evlitvin.entity.Pupil;
+import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
+import ru.evlitvin.exception.SchoolNotFoundException;
+import ru.evlitvin.repository.PupilRepository;
+import ru.evlitvin.repository.SchoolRepository;
+import ru.evlitvin.repository.TeacherRepository;
+import ru.evlitvin.rest.api.v1.PupilController;
+import ru.evlitvin.rest.api.v1.SchoolController;
+import ru.evlitvin.rest.api.v1.TeacherController;
+import ru.evlitvin.util.batch.ChunkedBatchExecutor;
+import ru.evlitvin.util.datasource.SqlStatisticsListener;
+import ru.evlitvin.util.execution.AsyncDbExecutor;
+import ru.evlitvin.util.export.JsonExportWriter;
+import ru.evlitvin.util.mapper.PupilMapperImpl;
+import ru.evlitvin.util.mapper.SchoolMapperImpl;
+import ru.evlitvin.util.mapper.TeacherMapperImpl;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static ru.evlitvin.util.datasource.SqlStatisticsAssertions.assertStatementCount;
+
+@SpringJUnitConfig(ReadQueryCountTest.Config.class)
+class ReadQueryCountTest {
+
+    @Autowired
+    private PupilService pupilService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private PupilController pupilController;
+
+    @Autowired
+    private TeacherController teacherController;
+
+    @Autowired
+    private SchoolController schoolController;
+
+    @Autowired
+    private PupilRepository pupilRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private SchoolRepository schoolRepository;
+
+    private Long pupilId;
+
+    private Long teacherId;
+
+    private Long schoolId;
+
+    @Configuration
+    @EnableJpaRepositories(basePackages = "ru.evlitvin.repository")
+    @EnableTransactionManagement
+    @Import({PupilService.class, TeacherService.class, SchoolService.class, SchoolVersionIncrementer.class, PupilMapperImpl.class,
+            TeacherMapperImpl.class, SchoolMapperImpl.class, JsonExportWriter.class, ChunkedBatchExecutor.class,
+            PupilController.class, TeacherController.class, SchoolController.class})
+    @PropertySource("classpath:test.properties")
+    static class Config {
+
+        private final Environment env;
+
+        Config(Environment env) {
+            this.env = env;
+        }
+
+        @Bean
+        public AsyncDbExecutor asyncDbExecutor() {
+            return new AsyncDbExecutor(Runnable::run, 1000);
+        }
+
+        @Bean
+        public DataSource dataSource() {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource();
+            dataSource.setDriverClassName(Objects.requireNonNull(env.getProperty("jdbc.driver")));
+            dataSource.setUrl(env.getProperty("jdbc.url"));
+            dataSource.setUsername(env.getProperty("jdbc.username"));
+            dataSource.setPassword(env.getProperty("jdbc.password"));
+            return SqlStatisticsListener.proxy(dataSource, "test");
+        }
+
+        @Bean
+        public EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+            em.setDataSource(dataSource);
+            em.setPackagesToScan("ru.evlitvin");
+            em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            em.setJpaProperties(additionalProperties());
+            em.afterPropertiesSet();
+            return em.getObject();
+        }
+
+        private Properties additionalProperties() {
+            Properties properties = new Properties();
+            properties.put("hibernate.dialect", env.getProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect"));
+            properties.put("hibernate.show_sql", env.getProperty("hibernate.show_sql", "true"));
+            properties.put("hibernate.format_sql", env.getProperty("hibernate.format_sql", "true"));
+            properties.put("hibernate.hbm2ddl.auto", env.getProperty("hibernate.hbm2ddl.auto", "update"));
+            properties.put("hibernate.cache.use_second_level_cache", "false");
+            return properties;
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
+            JpaTransactionManager transactionManager = new JpaTransactionManager();
+            transactionManager.setEntityManagerFactory(emf);
+            return transactionManager;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Pupil pupilOne = pupilRepository.save(new Pupil(null, "Ivan", "Ivanov"));
+        Pupil pupilTwo = pupilRepository.save(new Pupil(null, "Petr", "Petrov"));
+        School school = schoolRepository.save(new School(null, "School # 1", "School # 1 address"));
+        Teacher teacherOne = new Teacher(null, "Sidor", "Sidorov", school);
+        teacherOne.setPupils(new ArrayList<>(List.of(pupilOne, pupilTwo)));
+        Teacher teacherTwo = new Teacher(null, "Fedor", "Fedorov", school);
+        teacherTwo.setPupils(new ArrayList<>(List.of(pupilTwo)));
+        teacherRepository.saveAll(List.of(teacherOne, teacherTwo));
+
+        pupilId = pupilOne.getId();
+        teacherId = teacherOne.getId();
+        schoolId = school.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        teacherRepository.deleteAll();
+        schoolRepository.deleteAll();
+        pupilRepository.deleteAll();
+    }
+
+    @Test
+    void givenExistingPupil_whenGetPupilById_thenExecuteOneQuery() {
+        Optional<PupilDTO> pupil = assertStatementCount(1, () -> pupilService.getPupilById(pupilId));
+
+        assertEquals("Ivan", pupil.orElseThrow().getFirstName());
+    }
+
+    @Test
+    void givenMissingPupil_whenGetPupilById_thenExecuteOneQuery() {
+        assertTrue(assertStatementCount(1, () -> pupilService.getPupilById(-1L)).isEmpty());
+    }
+
+    @Test
+    void givenTeacherWithSchool_whenGetTeacherById_thenExecuteOneQuery() {
+        TeacherDTO teacher = assertStatementCount(1, () -> teacherService.getTeacherById(teacherId)).orElseThrow();
+
+        assertEquals(schoolId, teacher.getSchoolId());
+    }
+
+    @Test
+    void givenSchoolWithTeachers_whenGetSchoolById_thenExecuteOneQuery() {
+        SchoolDTO school = assertStatementCount(1, () -> schoolService.getSchoolById(schoolId)).orElseThrow();
+
+        assertEquals(2, school.getTeachers().size());
+    }
+
+    @Test
+    void givenNoIfNoneMatch_whenGetByIdThroughControllers_thenExecuteOneQueryEach() {
+        WebRequest request = mock(WebRequest.class);
+
+        ResponseEntity<PupilDTO> pupil = assertStatementCount(1, () -> pupilController.getPupilById(pupilId, request));
+        ResponseEntity<TeacherDTO> teacher = assertStatementCount(1, () -> teacherController.getTeacherById(teacherId, request));
+        ResponseEntity<SchoolDTO> school = assertStatementCount(1, () -> schoolController.getSchoolById(schoolId, request));
+
+        assertEquals("\"pupil-" + pupilId + "-0\"", pupil.getHeaders().getETag());
+        assertEquals("\"teacher-" + teacherId + "-0\"", teacher.getHeaders().getETag());
+        assertEquals("\"school-" + schoolId + "-0\"", school.getHeaders().getETag());
+        verify(request, never()).checkNotModified(anyString());
+    }
+
+    @Test
+    void givenMatchingIfNoneMatch_whenGetSchoolByIdThroughController_thenAnswerFromVersionQueryOnly() {
+        WebRequest request = mock(WebRequest.class);
+        when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("W/\"school-" + schoolId + "-0\"");
+
+        ResponseEntity<SchoolDTO> response = assertStatementCount(1, () -> schoolController.getSchoolById(schoolId, request));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    }
+
+    @Test
+    void givenStaleIfNoneMatch_whenGetPupilByIdThroughController_thenCheckVersionAndLoadOnce() {
+        WebRequest request = mock(WebRequest.class);
+        when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"pupil-" + pupilId + "-7\"");
+
+        ResponseEntity<PupilDTO> response = assertStatementCount(2, () -> pupilController.getPupilById(pupilId, request));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"pupil-" + pupilId + "-0\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void givenSchoolWithTeachers_whenGetSchoolPage_thenExecuteOneQueryPerProjection() {
+        PageDTO<SchoolDTO> page = assertStatementCount(2, () -> schoolService.getSchoolPage(null, 10));
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(2, page.getItems().get(0).getTeachers().size());
+        assertEquals(List.of(schoolId, schoolId), page.getItems().get(0).getTeachers().stream().map(TeacherDTO::getSchoolId).toList());
+    }
+
+    @Test
+    void givenTeachersOfOneSchool_whenCreateAndUpdateTeachersInOneChunk_thenIncrementSchoolVersionOncePerChunk() {
+        teacherService.createTeachers(List.of(new TeacherDTO(null, "Ivan", "Ivanov", schoolId),
+                new TeacherDTO(null, "Petr", "Petrov", schoolId), new TeacherDTO(null, "Sidor", "Sidorov", schoolId)));
+
+        assertEquals(1L, schoolRepository.findVersionById(schoolId).orElseThrow());
+
+        List<TeacherDTO> patches = teacherRepository.findAll().stream()
+                .map(teacher -> new TeacherDTO(teacher.getId(), "Mark", null, null))
+                .toList();
+        teacherService.updateTeachers(patches);
+
+        assertEquals(2L, schoolRepository.findVersionById(schoolId).orElseThrow());
+    }
+
+    @Test
+    void givenTeacherWithSchool_whenDeleteTeacher_thenIncrementSchoolVersion() {
+        teacherService.deleteTeacher(teacherId);
+
+        assertEquals(1L, schoolRepository.findVersionById(schoolId).orElseThrow());
+        assertFalse(teacherRepository.existsById(teacherId));
+    }
+
+    @Test
+    void givenClientSuppliedIds_whenCreateEntities_thenPersistUnderGeneratedIds() {
+        pupilService.addPupil(new PupilDTO(pupilId, "Mark", "Markov", 5L));
+        teacherService.createTeacher(new TeacherDTO(teacherId, "Mark", "Markov", schoolId, 5L));
+        SchoolDTO schoolDTO = new SchoolDTO(schoolId, "School # 2", "School # 2 address", 5L);
+        schoolDTO.setTeachers(List.of(new TeacherDTO(teacherId, "Oleg", "Olegov", null, 5L)));
+        schoolService.createSchool(schoolDTO);
+
+        assertEquals(3, pupilRepository.count());
+        assertEquals("Ivan", pupilRepository.findById(pupilId).orElseThrow().getFirstName());
+        assertEquals(4, teacherRepository.count());
+        assertEquals("Sidor", teacherRepository.findById(teacherId).orElseThrow().getFirstName());
+        assertEquals(2, schoolRepository.count());
+        assertEquals("School # 1", schoolRepository.findById(schoolId).orElseThrow().getSchoolName());
+    }
+
+    @Test
+    void givenExistingPupil_whenPatchPupil_thenExecuteOneUpdate() {
+        PupilDTO patch = new PupilDTO();
+        patch.setFirstName("Mark");
+
+        assertStatementCount(1, () -> {
+            pupilService.patchPupil(pupilId, patch);
+            return null;
+        });
+
+        Pupil pupil = pupilRepository.findById(pupilId).orElseThrow();
+        assertEquals("Mark", pupil.getFirstName());
+        assertEquals("Ivanov", pupil.getLastName());
+        assertEquals(1L, pupil.getVersion());
+    }
+
+    @Test
+    void givenStaleVersion_whenPatchTeacher_thenThrowOptimisticLockingFailureAndKeepRow() {
+        TeacherDTO patch = new TeacherDTO();
+        patch.setLastName("Petrov");
+        patch.setVersion(5L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> teacherService.patchTeacher(teacherId, patch));
+        assertEquals("Sidorov", teacherRepository.findById(teacherId).orElseThrow().getLastName());
+    }
+
+    @Test
+    void givenMissingSchool_whenPatchSchool_thenThrowSchoolNotFoundException() {
+        SchoolDTO patch = new SchoolDTO(null, "School # 2", null);
+
+        assertThrows(SchoolNotFoundException.class, () -> schoolService.patchSchool(-1L, patch));
+    }
+}
@@ -0,0 +1,109 @@
+package ru.evlitvin.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.transaction.annotation.Transactional;
+import ru.evlitvin.repository.PupilRepository;
+import ru.evlitvin.repository.SchoolRepository;
+import ru.evlitvin.repository.TeacherRepository;
+import ru.evlitvin.util.datasource.ReplicaDataSource;
+import ru.evlitvin.util.mapper.PupilMapper;
+import ru.evlitvin.util.mapper.SchoolMapper;
+import ru.evlitvin.util.mapper.TeacherMapper;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReadRoutingTest {
+
+    private static final List<Class<?>> SERVICES = List.of(PupilService.class, TeacherService.class, SchoolService.class);
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private final ReplicaDataSource replicaDataSource = new ReplicaDataSource(dataSource(primaryConnection),
+            Map.of("replica-1", dataSource(replicaConnection)), null, 1000, 1);
+
+    private final List<Connection> connections = new ArrayList<>();
+
+    @Test
+    void givenCachePopulatingOrETagReads_whenInspectTransactions_thenKeepThemReadOnly() {
+        List<Method> primaryReads = SERVICES.stream()
+                .flatMap(service -> Arrays.stream(service.getDeclaredMethods()))
+                .filter(method -> method.isAnnotationPresent(Cacheable.class) || method.getName().endsWith("ETag"))
+                .toList();
+
+        assertEquals(6, primaryReads.size());
+        for (Method method : primaryReads) {
+            Transactional transactional = method.getAnnotation(Transactional.class);
+            assertNotNull(transactional, method::toString);
+            assertTrue(transactional.readOnly(), method::toString);
+        }
+    }
+
+    @Test
+    void givenPageReads_whenInspectTransactions_thenRouteToReplicas() throws NoSuchMethodException {
+        Method page = PupilService.class.getMethod("getPupilPage", String.class, int.class);
+
+        assertTrue(page.getAnnotation(Transactional.class).readOnly());
+    }
+
+    @Test
+    void givenCachePopulatingOrETagReads_whenExecute_thenTakeConnectionsFromPrimary() throws SQLException {
+        PupilRepository pupilRepository = mock(PupilRepository.class);
+        TeacherRepository teacherRepository = mock(TeacherRepository.class);
+        SchoolRepository schoolRepository = mock(SchoolRepository.class);
+        when(pupilRepository.findById(any())).thenAnswer(connectAndReturnEmpty());
+        when(pupilRepository.findVersionById(any())).thenAnswer(connectAndReturnEmpty());
+        when(teacherRepository.findById(any())).thenAnswer(connectAndReturnEmpty());
+        when(teacherRepository.findVersionById(any())).thenAnswer(connectAndReturnEmpty());
+        when(schoolRepository.findWithTeachersById(any())).thenAnswer(connectAndReturnEmpty());
+        when(schoolRepository.findVersionById(any())).thenAnswer(connectAndReturnEmpty());
+        PupilService pupilService = new PupilService(mock(PupilMapper.class), pupilRepository, null, null);
+        TeacherService teacherService = new TeacherService(teacherRepository, mock(TeacherMapper.class), schoolRepository,
+                null, null, null);
+        SchoolService schoolService = new SchoolService(schoolRepository, mock(SchoolMapper.class), teacherRepository,
+                mock(TeacherMapper.class), null, null);
+
+        pupilService.getPupilById(1L);
+        pupilService.getPupilETag(1L);
+        teacherService.getTeacherById(1L);
+        teacherService.getTeacherETag(1L);
+        schoolService.getSchoolById(1L);
+        schoolService.getSchoolETag(1L);
+
+        assertEquals(List.of(primaryConnection, primaryConnection, primaryConnection, primaryConnection,
+                primaryConnection, primaryConnection), connections);
+        assertSame(replicaConnection, replicaDataSource.getConnection());
+    }
+
+    private Answer<Optional<?>> connectAndReturnEmpty() {
+        return invocation -> {
+            connections.add(replicaDataSource.getConnection());
+            return Optional.empty();
+        };
+    }
+
+    private static DataSource dataSource(Connection connection) {
+        DataSource dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+}
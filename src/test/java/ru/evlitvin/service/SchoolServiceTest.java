@@ -1,21 +1,39 @@
 package ru.evlitvin.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.SchoolDTO;
+import ru.evlitvin.dto.TeacherDTO;
 import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
 import ru.evlitvin.exception.SchoolNotFoundException;
 import ru.evlitvin.repository.SchoolRepository;
+import ru.evlitvin.repository.TeacherRepository;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.export.JsonExportWriter;
 import ru.evlitvin.util.mapper.SchoolMapper;
+import ru.evlitvin.util.mapper.TeacherMapper;
+import ru.evlitvin.util.pagination.Cursor;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class SchoolServiceTest {
@@ -26,6 +44,15 @@ class SchoolServiceTest {
     @Mock
     private SchoolMapper schoolMapper;
 
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private TeacherMapper teacherMapper;
+
+    @Spy
+    private JsonExportWriter jsonExportWriter = new JsonExportWriter(entityManager());
+
     @InjectMocks
     private SchoolService schoolService;
 
@@ -46,10 +73,10 @@ class SchoolServiceTest {
         schoolDTO.setSchoolName("School # 1");
         schoolDTO.setAddress("School # 1 address");
 
-        when(schoolRepository.findById(1L)).thenReturn(Optional.of(school));
+        when(schoolRepository.findWithTeachersById(1L)).thenReturn(Optional.of(school));
         when(schoolMapper.toSchoolDTO(school)).thenReturn(schoolDTO);
 
-        SchoolDTO returnedSchool = schoolService.getSchoolById(1L);
+        SchoolDTO returnedSchool = schoolService.getSchoolById(1L).orElseThrow();
 
         assertNotNull(returnedSchool);
         assertEquals(1L, returnedSchool.getId());
@@ -58,49 +85,10 @@ class SchoolServiceTest {
     }
 
     @Test
-    void givenNotExistingSchool_whenGetSchoolById_thenThrowSchoolNotFoundException() {
-        when(schoolRepository.findById(1L)).thenReturn(Optional.empty());
+    void givenNotExistingSchool_whenGetSchoolById_thenReturnEmptyOptional() {
+        when(schoolRepository.findWithTeachersById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(SchoolNotFoundException.class, () -> schoolService.getSchoolById(1L));
-    }
-
-    @Test
-    void givenExistingSchools_whenGetAllSchools_thenReturnListOfSchools() {
-        School schoolOne = new School();
-        schoolOne.setId(1L);
-        schoolOne.setSchoolName("School # 1");
-        schoolOne.setAddress("School # 1 address");
-
-        School schoolTwo = new School();
-        schoolTwo.setId(2L);
-        schoolTwo.setSchoolName("School # 2");
-        schoolTwo.setAddress("School # 2 address");
-
-        SchoolDTO schoolDTOOne = new SchoolDTO();
-        schoolDTOOne.setId(1L);
-        schoolDTOOne.setSchoolName("School # 1");
-        schoolDTOOne.setAddress("School # 1 address");
-
-        SchoolDTO schoolDTOTwo = new SchoolDTO();
-        schoolDTOTwo.setId(2L);
-        schoolDTOTwo.setSchoolName("School # 2");
-        schoolDTOTwo.setAddress("School # 2 address");
-
-        when(schoolRepository.findAll()).thenReturn(Arrays.asList(schoolOne, schoolTwo));
-        when(schoolMapper.toSchoolDTO(schoolOne)).thenReturn(schoolDTOOne);
-        when(schoolMapper.toSchoolDTO(schoolTwo)).thenReturn(schoolDTOTwo);
-
-        List<SchoolDTO> schoolDTOList = schoolService.getAllSchools();
-
-        assertNotNull(schoolDTOList);
-        assertEquals(2, schoolDTOList.size());
-    }
-
-    @Test
-    void givenNotExistingSchools_whenGetAllSchools_thenThrowSchoolNotFoundException() {
-        when(schoolRepository.findAll()).thenReturn(List.of());
-
-        assertThrows(SchoolNotFoundException.class, () -> schoolService.getAllSchools());
+        assertTrue(schoolService.getSchoolById(1L).isEmpty());
     }
 
     @Test
@@ -196,4 +184,68 @@ class SchoolServiceTest {
 
         assertThrows(SchoolNotFoundException.class, () -> schoolService.deleteSchool(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenMoreSchoolsThanLimit_whenGetSchoolPage_thenLoadTeachersOnlyForPageSchoolsAndReturnNextCursor() {
+        SchoolDTO schoolDTOOne = new SchoolDTO(1L, "School # 1", "School # 1 address", 0L);
+        SchoolDTO schoolDTOTwo = new SchoolDTO(2L, "School # 2", "School # 2 address", 0L);
+        TeacherDTO teacher = new TeacherDTO(1L, "Ivan", "Ivanov", 1L, 0L);
+
+        when(schoolRepository.findDTOsAfter(0L, Limit.of(2))).thenReturn(List.of(schoolDTOOne, schoolDTOTwo));
+        when(teacherRepository.findDTOsBySchoolIdIn(List.of(1L))).thenReturn(List.of(teacher));
+
+        PageDTO<SchoolDTO> page = schoolService.getSchoolPage(null, 1);
+
+        assertEquals(List.of(schoolDTOOne), page.getItems());
+        assertEquals(List.of(teacher), page.getItems().get(0).getTeachers());
+        assertEquals(1L, Cursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void givenNoSchoolsAfterCursor_whenGetSchoolPage_thenReturnEmptyPage() {
+        when(schoolRepository.findDTOsAfter(5L, Limit.of(11))).thenReturn(List.of());
+
+        PageDTO<SchoolDTO> page = schoolService.getSchoolPage(Cursor.encode(5L), 10);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(teacherRepository, never()).findDTOsBySchoolIdIn(any());
+    }
+
+    @Test
+    void givenSchoolsAndTeachers_whenExportSchools_thenWriteSchoolsWithTheirTeachers() throws IOException {
+        School schoolOne = new School(1L, "School # 1", "School # 1 address");
+        School schoolTwo = new School(2L, "School # 2", "School # 2 address");
+        School schoolThree = new School(3L, "School # 3", "School # 3 address");
+        Teacher teacherOne = new Teacher(1L, "Ivan", "Ivanov", schoolOne);
+        Teacher teacherTwo = new Teacher(2L, "Petr", "Petrov", schoolThree);
+        Teacher teacherThree = new Teacher(3L, "Sidor", "Sidorov", schoolThree);
+
+        when(teacherMapper.toTeacherDTO(any(Teacher.class))).thenAnswer(invocation -> {
+            Teacher teacher = invocation.getArgument(0);
+            return new TeacherDTO(teacher.getId(), teacher.getFirstName(), teacher.getLastName(), teacher.getSchool().getId());
+        });
+        when(schoolMapper.toSchoolSummaryDTO(any(School.class))).thenAnswer(invocation -> {
+            School school = invocation.getArgument(0);
+            return new SchoolDTO(school.getId(), school.getSchoolName(), school.getAddress());
+        });
+        when(schoolRepository.streamAll()).thenReturn(Stream.of(schoolOne, schoolTwo, schoolThree));
+        when(teacherRepository.streamAllOrderBySchool()).thenReturn(Stream.of(teacherOne, teacherTwo, teacherThree));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        schoolService.exportSchools(ExportFormat.JSON, out);
+
+        JsonNode schools = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(3, schools.size());
+        assertEquals(1, schools.get(0).get("teachers").size());
+        assertEquals(0, schools.get(1).get("teachers").size());
+        assertEquals(2, schools.get(2).get("teachers").size());
+        assertEquals("Sidor", schools.get(2).get("teachers").get(1).get("firstName").asText());
+    }
+
+    private static EntityManager entityManager() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        return entityManager;
+    }
+}
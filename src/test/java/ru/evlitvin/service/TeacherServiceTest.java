@@ -5,17 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.dto.PageDTO;
 import ru.evlitvin.dto.TeacherDTO;
+import ru.evlitvin.entity.School;
 import ru.evlitvin.entity.Teacher;
 import ru.evlitvin.exception.TeacherNotFoundException;
+import ru.evlitvin.repository.SchoolRepository;
 import ru.evlitvin.repository.TeacherRepository;
+import ru.evlitvin.repository.TeacherSearchHit;
+import ru.evlitvin.util.batch.ChunkedBatchExecutor;
 import ru.evlitvin.util.mapper.TeacherMapper;
+import ru.evlitvin.util.pagination.Cursor;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class TeacherServiceTest {
@@ -26,6 +37,15 @@ class TeacherServiceTest {
     @Mock
     private TeacherMapper teacherMapper;
 
+    @Mock
+    private SchoolRepository schoolRepository;
+
+    @Mock
+    private SchoolVersionIncrementer schoolVersionIncrementer;
+
+    @Spy
+    private ChunkedBatchExecutor chunkedBatchExecutor = new ChunkedBatchExecutor(mock(PlatformTransactionManager.class), 100, 1000);
+
     @InjectMocks
     private TeacherService teacherService;
 
@@ -49,7 +69,7 @@ class TeacherServiceTest {
         when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
         when(teacherMapper.toTeacherDTO(teacher)).thenReturn(teacherDTO);
 
-        TeacherDTO returnedTeacher = teacherService.getTeacherById(1L);
+        TeacherDTO returnedTeacher = teacherService.getTeacherById(1L).orElseThrow();
 
         assertNotNull(returnedTeacher);
         assertEquals(1L, returnedTeacher.getId());
@@ -58,49 +78,25 @@ class TeacherServiceTest {
     }
 
     @Test
-    void givenNotExistingTeacher_whenGetTeacherById_thenThrowTeacherNotFoundException() {
+    void givenNotExistingTeacher_whenGetTeacherById_thenReturnEmptyOptional() {
         when(teacherRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(TeacherNotFoundException.class, () -> teacherService.getTeacherById(1L));
+        assertTrue(teacherService.getTeacherById(1L).isEmpty());
     }
 
     @Test
-    void givenExistingTeachers_whenGetAllTeachers_thenReturnListOfTeachers() {
-        Teacher teacherOne = new Teacher();
-        teacherOne.setId(1L);
-        teacherOne.setFirstName("Ivan");
-        teacherOne.setLastName("Ivanov");
-
-        Teacher teacherTwo = new Teacher();
-        teacherTwo.setId(2L);
-        teacherTwo.setFirstName("Petr");
-        teacherTwo.setLastName("Petrov");
-
-        TeacherDTO teacherDTOOne = new TeacherDTO();
-        teacherDTOOne.setId(1L);
-        teacherDTOOne.setFirstName("Ivan");
-        teacherDTOOne.setLastName("Ivanov");
-
-        TeacherDTO teacherDTOTwo = new TeacherDTO();
-        teacherDTOTwo.setId(2L);
-        teacherDTOTwo.setFirstName("Petr");
-        teacherDTOTwo.setLastName("Petrov");
-
-        when(teacherRepository.findAll()).thenReturn(Arrays.asList(teacherOne, teacherTwo));
-        when(teacherMapper.toTeacherDTO(teacherOne)).thenReturn(teacherDTOOne);
-        when(teacherMapper.toTeacherDTO(teacherTwo)).thenReturn(teacherDTOTwo);
-
-        List<TeacherDTO> teacherDTOList = teacherService.getAllTeachers();
+    void givenMoreTeachersThanLimit_whenGetTeacherPage_thenReturnProjectedTeachersWithNextCursor() {
+        TeacherDTO teacherDTOOne = new TeacherDTO(1L, "Ivan", "Ivanov", 1L, 0L);
+        TeacherDTO teacherDTOTwo = new TeacherDTO(2L, "Petr", "Petrov", null, 0L);
+        TeacherDTO teacherDTOThree = new TeacherDTO(3L, "Sidor", "Sidorov", null, 0L);
 
-        assertNotNull(teacherDTOList);
-        assertEquals(2, teacherDTOList.size());
-    }
+        when(teacherRepository.findDTOsAfter(0L, Limit.of(3))).thenReturn(List.of(teacherDTOOne, teacherDTOTwo, teacherDTOThree));
 
-    @Test
-    void givenNotExistingTeachers_whenGetAllTeachers_thenThrowTeacherNotFoundException() {
-        when(teacherRepository.findAll()).thenReturn(List.of());
+        PageDTO<TeacherDTO> page = teacherService.getTeacherPage(null, 2);
 
-        assertThrows(TeacherNotFoundException.class, () -> teacherService.getAllTeachers());
+        assertEquals(List.of(teacherDTOOne, teacherDTOTwo), page.getItems());
+        assertEquals(2L, Cursor.decode(page.getNextCursor()));
+        verifyNoInteractions(teacherMapper);
     }
 
     @Test
@@ -118,6 +114,23 @@ class TeacherServiceTest {
         teacherService.createTeacher(teacherDTO);
 
         verify(teacherRepository, times(1)).save(teacher);
+        verify(schoolVersionIncrementer).schoolChanged(null);
+    }
+
+    @Test
+    void givenTeacherWithSchoolId_whenCreateTeacher_thenAttachSchoolReference() {
+        TeacherDTO teacherDTO = new TeacherDTO(null, "Ivan", "Ivanov", 1L);
+        Teacher teacher = new Teacher(null, "Ivan", "Ivanov", new School(1L, null, null));
+        School school = new School(1L, "School # 1", "School # 1 address");
+
+        when(teacherMapper.toTeacher(teacherDTO)).thenReturn(teacher);
+        when(schoolRepository.getReferenceById(1L)).thenReturn(school);
+
+        teacherService.createTeacher(teacherDTO);
+
+        assertSame(school, teacher.getSchool());
+        verify(teacherRepository, times(1)).save(teacher);
+        verify(schoolVersionIncrementer).schoolChanged(1L);
     }
 
     @Test
@@ -167,6 +180,7 @@ class TeacherServiceTest {
         assertEquals("Petr", teacher.getFirstName());
         assertEquals("Petrov", teacher.getLastName());
         verify(teacherRepository, times(1)).save(teacher);
+        verify(schoolVersionIncrementer).schoolChanged(null);
     }
 
     @Test
@@ -180,14 +194,14 @@ class TeacherServiceTest {
 
     @Test
     void givenExistingTeacher_whenDeleteTeacher_thenDeleteTeacher() {
-        Teacher teacher = new Teacher();
-        teacher.setId(1L);
+        Teacher teacher = new Teacher(1L, "Ivan", "Ivanov", new School(2L, null, null));
 
         when(teacherRepository.findById(1L)).thenReturn(Optional.of(teacher));
 
         teacherService.deleteTeacher(1L);
 
         verify(teacherRepository, times(1)).deleteById(1L);
+        verify(schoolVersionIncrementer).schoolChanged(2L);
     }
 
     @Test
@@ -196,4 +210,77 @@ class TeacherServiceTest {
 
         assertThrows(TeacherNotFoundException.class, () -> teacherService.deleteTeacher(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenValidAndInvalidTeachers_whenCreateTeachers_thenSaveValidTeachersAndReportInvalidOne() {
+        TeacherDTO validDTO = new TeacherDTO(null, "Ivan", "Ivanov", null);
+        TeacherDTO invalidDTO = new TeacherDTO(null, null, "Petrov", null);
+        Teacher validTeacher = new Teacher(null, "Ivan", "Ivanov");
+        Teacher invalidTeacher = new Teacher(null, null, "Petrov");
+
+        when(teacherMapper.toTeacher(validDTO)).thenReturn(validTeacher);
+        when(teacherMapper.toTeacher(invalidDTO)).thenReturn(invalidTeacher);
+        when(teacherRepository.save(validTeacher)).thenAnswer(invocation -> {
+            validTeacher.setId(7L);
+            return validTeacher;
+        });
+        List<BatchResultDTO> results = teacherService.createTeachers(List.of(validDTO, invalidDTO));
+
+        assertEquals(BatchResultDTO.Status.CREATED, results.get(0).getStatus());
+        assertEquals(7L, results.get(0).getId());
+        assertEquals(BatchResultDTO.Status.FAILED, results.get(1).getStatus());
+        assertEquals("Teacher firstname and lastname are required", results.get(1).getError());
+    }
+
+    @Test
+    void givenExistingTeachers_whenUpdateTeachers_thenPatchEachWithoutLoading() {
+        TeacherDTO first = new TeacherDTO(1L, "Ivan", null, null);
+        TeacherDTO missing = new TeacherDTO(2L, null, "Petrov", null);
+
+        when(teacherRepository.patchById(1L, "Ivan", null, null)).thenReturn(1);
+        when(teacherRepository.patchById(2L, null, "Petrov", null)).thenReturn(0);
+        when(teacherRepository.existsById(2L)).thenReturn(false);
+
+        List<BatchResultDTO> results = teacherService.updateTeachers(List.of(first, missing));
+
+        assertEquals(BatchResultDTO.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(BatchResultDTO.Status.FAILED, results.get(1).getStatus());
+        verify(schoolVersionIncrementer, atLeastOnce()).teacherChanged(1L);
+        verify(schoolVersionIncrementer, never()).teacherChanged(2L);
+        verify(teacherRepository, never()).findById(any());
+        verify(teacherRepository, never()).save(any());
+    }
+
+    @Test
+    void givenTeacherWithoutId_whenUpdateTeachers_thenReportFailedItem() {
+        List<BatchResultDTO> results = teacherService.updateTeachers(List.of(new TeacherDTO(null, "Ivan", "Ivanov", null)));
+
+        assertEquals(BatchResultDTO.Status.FAILED, results.get(0).getStatus());
+        verify(teacherRepository, never()).save(any());
+    }
+
+    @Test
+    void givenMatchingTeachers_whenSearchTeachers_thenReturnPageWithSchoolIds() {
+        TeacherSearchHit hit = mock(TeacherSearchHit.class);
+        when(hit.getId()).thenReturn(5L);
+        when(hit.getFirstName()).thenReturn("Anna");
+        when(hit.getLastName()).thenReturn("Smirnova");
+        when(hit.getSchoolId()).thenReturn(2L);
+        when(hit.getVersion()).thenReturn(1L);
+        when(teacherRepository.search("smi:*", "smi", 21, 0L)).thenReturn(List.of(hit));
+
+        PageDTO<TeacherDTO> page = teacherService.searchTeachers("Smi", null, 20);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(5L, page.getItems().get(0).getId());
+        assertEquals(2L, page.getItems().get(0).getSchoolId());
+        assertEquals(1L, page.getItems().get(0).getVersion());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void givenQueryWithoutLettersOrDigits_whenSearchTeachers_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> teacherService.searchTeachers("&|!:*", null, 20));
+        verifyNoInteractions(teacherRepository);
+    }
+}
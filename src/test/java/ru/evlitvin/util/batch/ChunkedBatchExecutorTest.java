@@ -0,0 +1,101 @@
+package ru.evlitvin.util.batch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import ru.evlitvin.dto.BatchResultDTO;
+import ru.evlitvin.exception.PupilNotFoundException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ChunkedBatchExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private ChunkedBatchExecutor chunkedBatchExecutor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        chunkedBatchExecutor = new ChunkedBatchExecutor(transactionManager, 2, 10);
+    }
+
+    @Test
+    void givenValidItems_whenExecute_thenCommitOneTransactionPerChunk() {
+        List<BatchResultDTO> results = chunkedBatchExecutor.execute(List.of(1L, 2L, 3L, 4L, 5L), id -> id * 10,
+                BatchResultDTO.Status.CREATED);
+
+        assertEquals(5, results.size());
+        assertEquals(50L, results.get(4).getId());
+        assertEquals(4, results.get(4).getIndex());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BatchResultDTO.Status.CREATED));
+        verify(transactionManager, times(3)).commit(transactionStatus);
+    }
+
+    @Test
+    void givenFailingItem_whenExecute_thenRetryChunkItemsSeparatelyAndReportOnlyFailedItem() {
+        AtomicInteger calls = new AtomicInteger();
+
+        List<BatchResultDTO> results = chunkedBatchExecutor.execute(List.of(1L, 2L, 3L), id -> {
+            calls.incrementAndGet();
+            if (id == 2L) {
+                throw new IllegalStateException("broken row");
+            }
+            return id;
+        }, BatchResultDTO.Status.UPDATED);
+
+        assertEquals(BatchResultDTO.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(BatchResultDTO.Status.FAILED, results.get(1).getStatus());
+        assertEquals("The item could not be processed", results.get(1).getError());
+        assertEquals(BatchResultDTO.Status.UPDATED, results.get(2).getStatus());
+        assertEquals(5, calls.get());
+        verify(transactionManager, times(2)).rollback(transactionStatus);
+    }
+
+    @Test
+    void givenKnownFailures_whenExecute_thenReportStableMessagesWithoutInternals() {
+        List<BatchResultDTO> results = chunkedBatchExecutor.execute(List.of(1L, 2L, 3L, 4L), id -> {
+            switch (id.intValue()) {
+                case 1 -> throw new PupilNotFoundException(7L);
+                case 2 -> throw new IllegalArgumentException("Pupil name is required");
+                case 3 -> throw new ObjectOptimisticLockingFailureException("ru.evlitvin.entity.Pupil", 3L);
+                default -> throw new DataIntegrityViolationException("could not execute statement [insert into pupil]");
+            }
+        }, BatchResultDTO.Status.UPDATED);
+
+        assertEquals("No pupil found with ID: 7", results.get(0).getError());
+        assertEquals("Pupil name is required", results.get(1).getError());
+        assertEquals("The resource was modified by another request; reload it and retry", results.get(2).getError());
+        assertEquals("The item violates a data integrity constraint", results.get(3).getError());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BatchResultDTO.Status.FAILED));
+    }
+
+    @Test
+    void givenTooManyItems_whenExecute_thenThrowIllegalArgumentException() {
+        List<Long> items = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> chunkedBatchExecutor.execute(items, id -> id, BatchResultDTO.Status.DELETED));
+    }
+
+    @Test
+    void givenEmptyBatch_whenExecute_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> chunkedBatchExecutor.execute(List.<Long>of(), id -> id, BatchResultDTO.Status.DELETED));
+    }
+}
@@ -0,0 +1,211 @@
+package ru.evlitvin.util.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.evlitvin.entity.Pupil;
+import ru.evlitvin.entity.School;
+import ru.evlitvin.entity.Teacher;
+import ru.evlitvin.repository.PupilRepository;
+import ru.evlitvin.repository.SchoolRepository;
+import ru.evlitvin.repository.TeacherRepository;
+import ru.evlitvin.util.export.ExportFormat;
+import ru.evlitvin.util.export.JsonExportWriter;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringJUnitConfig(SecondLevelCacheSettingsTest.Config.class)
+@TestPropertySource(properties = {
+        "cache.l2.statistics-enabled=true",
+        "cache.l2.pupil.concurrency-strategy=nonstrict-read-write"
+})
+class SecondLevelCacheSettingsTest {
+
+    @Autowired
+    private SchoolRepository schoolRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private PupilRepository pupilRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long schoolId;
+
+    @Configuration
+    @EnableJpaRepositories(basePackages = "ru.evlitvin.repository")
+    @PropertySource("classpath:test.properties")
+    static class Config {
+
+        private final Environment env;
+
+        Config(Environment env) {
+            this.env = env;
+        }
+
+        @Bean
+        public DataSource dataSource() {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource();
+            dataSource.setDriverClassName(Objects.requireNonNull(env.getProperty("jdbc.driver")));
+            dataSource.setUrl(env.getProperty("jdbc.url"));
+            dataSource.setUsername(env.getProperty("jdbc.username"));
+            dataSource.setPassword(env.getProperty("jdbc.password"));
+            return dataSource;
+        }
+
+        @Bean(destroyMethod = "close")
+        public CacheManager hibernateCacheManager() {
+            return new SecondLevelCacheSettings(env).createCacheManager();
+        }
+
+        @Bean
+        public EntityManagerFactory entityManagerFactory(DataSource dataSource, CacheManager hibernateCacheManager) {
+            LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+            em.setDataSource(dataSource);
+            em.setPackagesToScan("ru.evlitvin");
+            em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            em.setJpaProperties(additionalProperties(hibernateCacheManager));
+            em.afterPropertiesSet();
+            return em.getObject();
+        }
+
+        private Properties additionalProperties(CacheManager hibernateCacheManager) {
+            Properties properties = new Properties();
+            properties.put("hibernate.dialect", env.getProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect"));
+            properties.put("hibernate.show_sql", env.getProperty("hibernate.show_sql", "true"));
+            properties.put("hibernate.format_sql", env.getProperty("hibernate.format_sql", "true"));
+            properties.put("hibernate.hbm2ddl.auto", env.getProperty("hibernate.hbm2ddl.auto", "update"));
+            new SecondLevelCacheSettings(env).applyTo(properties, hibernateCacheManager);
+            return properties;
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
+            JpaTransactionManager transactionManager = new JpaTransactionManager();
+            transactionManager.setEntityManagerFactory(emf);
+            return transactionManager;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Pupil pupil = pupilRepository.save(new Pupil(null, "Ivan", "Ivanov"));
+        School school = schoolRepository.save(new School(null, "School # 1", "School # 1 address"));
+        Teacher teacher = new Teacher(null, "Petr", "Petrov", school);
+        teacher.setPupils(List.of(pupil));
+        teacherRepository.save(teacher);
+        schoolId = school.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        teacherRepository.deleteAll();
+        schoolRepository.deleteAll();
+        pupilRepository.deleteAll();
+    }
+
+    @Test
+    void givenWarmCache_whenTraverseSchoolAssociations_thenNoStatementsExecuted() {
+        traverseSchool();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        List<String> pupilNames = traverseSchool();
+
+        assertEquals(List.of("Ivan"), pupilNames);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertTrue(statistics.getCacheRegionStatistics(SecondLevelCacheSettings.SCHOOL_TEACHERS).getHitCount() > 0);
+        assertTrue(statistics.getCacheRegionStatistics(SecondLevelCacheSettings.TEACHER_PUPILS).getHitCount() > 0);
+    }
+
+    @Test
+    void givenCachedSchoolTeachers_whenTeacherAddedFromOwningSide_thenCollectionCacheEvicted() {
+        traverseSchool();
+
+        School school = schoolRepository.findById(schoolId).orElseThrow();
+        teacherRepository.save(new Teacher(null, "Sidor", "Sidorov", school));
+
+        int teacherCount = new TransactionTemplate(transactionManager).execute(status ->
+                schoolRepository.findById(schoolId).orElseThrow().getTeachers().size());
+        assertEquals(2, teacherCount);
+    }
+
+    @Test
+    void givenRegionStrategyOverride_whenBuildSessionFactory_thenUseConfiguredAccessType() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        assertEquals(AccessType.NONSTRICT_READ_WRITE, sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Pupil.class).getCacheAccessStrategy().getAccessType());
+        assertEquals(AccessType.READ_WRITE, sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(School.class).getCacheAccessStrategy().getAccessType());
+    }
+
+    @Test
+    void givenEmptyCache_whenExportPupils_thenPupilRegionNotPopulated() {
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = statistics();
+        statistics.clear();
+        JsonExportWriter writer = new JsonExportWriter(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                writer.write(pupilRepository.streamAll(), Pupil::getFirstName, ExportFormat.JSON, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertEquals("[\"Ivan\"]", out.toString(StandardCharsets.UTF_8));
+        assertEquals(0, statistics.getCacheRegionStatistics(SecondLevelCacheSettings.PUPIL).getPutCount());
+    }
+
+    private List<String> traverseSchool() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                schoolRepository.findById(schoolId).orElseThrow().getTeachers().stream()
+                        .flatMap(teacher -> teacher.getPupils().stream())
+                        .map(Pupil::getFirstName)
+                        .toList());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
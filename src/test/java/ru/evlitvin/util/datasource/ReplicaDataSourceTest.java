@@ -0,0 +1,140 @@
+package ru.evlitvin.util.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaDataSourceTest {
+
+    private DataSource primary;
+
+    private DataSource replica;
+
+    private ReplicaDataSource replicaDataSource;
+
+    private TransactionTemplate transactionTemplate;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        new JdbcTemplate(primary).execute("create table node (name varchar(20))");
+        new JdbcTemplate(primary).execute("insert into node values ('primary')");
+        new JdbcTemplate(replica).execute("create table node (name varchar(20))");
+        new JdbcTemplate(replica).execute("insert into node values ('replica')");
+        new JdbcTemplate(replica).execute("create table replication_lag (lag_ms bigint)");
+        new JdbcTemplate(replica).execute("insert into replication_lag values (0)");
+
+        replicaDataSource = new ReplicaDataSource(primary, Map.of("replica-1", replica),
+                "select lag_ms from replication_lag", 1000, 1);
+        replicaDataSource.start(0);
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        jdbcTemplate = new JdbcTemplate(routing);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        replicaDataSource.close();
+        new JdbcTemplate(primary).execute("drop all objects");
+        new JdbcTemplate(replica).execute("drop all objects");
+    }
+
+    @Test
+    void givenReadOnlyTransaction_whenQuery_thenUseReplica() {
+        transactionTemplate.setReadOnly(true);
+
+        assertEquals("replica", currentNode());
+    }
+
+    @Test
+    void givenReadWriteTransaction_whenQuery_thenUsePrimary() {
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void givenReadOnlyTransactionPinnedToPrimary_whenQuery_thenUsePrimary() {
+        transactionTemplate.setReadOnly(true);
+
+        assertEquals("primary", transactionTemplate.execute(status -> ReplicaDataSource.readFromPrimary(() ->
+                jdbcTemplate.queryForObject("select name from node", String.class))));
+        assertEquals("replica", currentNode());
+    }
+
+    @Test
+    void givenLaggingReplica_whenCheckHealth_thenFallBackToPrimary() {
+        new JdbcTemplate(replica).update("update replication_lag set lag_ms = 5000");
+        replicaDataSource.checkHealth();
+        transactionTemplate.setReadOnly(true);
+
+        assertEquals(0, replicaDataSource.getHealthyReplicaCount());
+        assertEquals("primary", currentNode());
+
+        new JdbcTemplate(replica).update("update replication_lag set lag_ms = 10");
+        replicaDataSource.checkHealth();
+
+        assertEquals(1, replicaDataSource.getHealthyReplicaCount());
+        assertEquals("replica", currentNode());
+    }
+
+    @Test
+    void givenUnreachableReplica_whenGetConnection_thenUseNextReplicaAndTakeItOutOfRotation() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("down"));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("broken", broken);
+        replicas.put("replica-1", replica);
+        ReplicaDataSource dataSource = new ReplicaDataSource(primary, replicas, null, 1000, 1);
+
+        for (int i = 0; i < 4; i++) {
+            try (Connection connection = dataSource.getConnection()) {
+                assertEquals("replica", nodeOf(connection));
+            }
+        }
+        assertEquals(1, dataSource.getHealthyReplicaCount());
+        verify(broken, times(1)).getConnection();
+    }
+
+    @Test
+    void givenExplicitCredentials_whenGetConnection_thenDelegateToPrimary() throws SQLException {
+        try (Connection connection = replicaDataSource.getConnection("sa", "")) {
+            assertEquals("primary", nodeOf(connection));
+        }
+    }
+
+    private String currentNode() {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private static String nodeOf(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select name from node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
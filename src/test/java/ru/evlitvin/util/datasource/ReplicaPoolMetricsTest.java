@@ -0,0 +1,26 @@
+package ru.evlitvin.util.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.evlitvin.dto.PoolStatsDTO;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaPoolMetricsTest {
+
+    @Test
+    void givenReplicaPools_whenBindTo_thenRegisterPoolMetersPerReplica() {
+        ReplicaPoolMetrics metrics = new ReplicaPoolMetrics(List.of("pool-replica-1", "pool-replica-2"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        metrics.bindTo(registry);
+        metrics.get("pool-replica-2").create("pool-replica-2", null).recordConnectionTimeout();
+
+        assertNotNull(registry.find("hikaricp.connections.pending").tag("pool", "pool-replica-1").gauge());
+        assertEquals(1.0, registry.find("hikaricp.connections.timeout").tag("pool", "pool-replica-2").functionCounter().count());
+        assertEquals(List.of("pool-replica-1", "pool-replica-2"),
+                metrics.getSnapshots().stream().map(PoolStatsDTO::getPoolName).toList());
+    }
+}
@@ -0,0 +1,63 @@
+package ru.evlitvin.util.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLoggerTest {
+
+    private static final String SQL = "select p.id from pupil p where p.last_name = ? and p.first_name <> 'Ivan'";
+
+    @Test
+    void givenRedactMode_whenFormat_thenHideLiteralsAndParameterValues() throws Exception {
+        SlowQueryLogger logger = new SlowQueryLogger(100, 1000, SlowQueryLogger.ParameterMode.REDACT);
+
+        String message = logger.format(executionInfo(250), queryInfo("Petrov"));
+
+        assertTrue(message.startsWith("slow_query elapsed_ms=250 threshold_ms=100 datasource=school-pool"));
+        assertTrue(message.contains("p.first_name <> '?'"));
+        assertTrue(message.endsWith("params=[String]"));
+        assertFalse(message.contains("Petrov"));
+        assertFalse(message.contains("Ivan"));
+    }
+
+    @Test
+    void givenShowMode_whenFormat_thenIncludeParameterValues() throws Exception {
+        SlowQueryLogger logger = new SlowQueryLogger(100, 1000, SlowQueryLogger.ParameterMode.SHOW);
+
+        String message = logger.format(executionInfo(250), queryInfo("Petrov"));
+
+        assertTrue(message.contains("p.first_name <> 'Ivan'"));
+        assertTrue(message.endsWith("params=[Petrov]"));
+    }
+
+    @Test
+    void givenNoneMode_whenFormat_thenOmitParameters() throws Exception {
+        SlowQueryLogger logger = new SlowQueryLogger(100, 1000, SlowQueryLogger.ParameterMode.NONE);
+
+        String message = logger.format(executionInfo(250), queryInfo("Petrov"));
+
+        assertFalse(message.contains("params="));
+    }
+
+    private static ExecutionInfo executionInfo(long elapsedMillis) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setDataSourceName("school-pool");
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+
+    private static QueryInfo queryInfo(String lastName) throws Exception {
+        QueryInfo queryInfo = new QueryInfo(SQL);
+        queryInfo.getParametersList().add(List.of(new ParameterSetOperation(
+                PreparedStatement.class.getMethod("setString", int.class, String.class), new Object[]{1, lastName})));
+        return queryInfo;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.evlitvin.util.datasource;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class SqlStatisticsAssertions {
+
+    private SqlStatisticsAssertions() {}
+
+    public static SqlStatistics capture(Runnable action) {
+        SqlStatistics statistics = SqlStatistics.begin();
+        try {
+            action.run();
+        } finally {
+            SqlStatistics.end();
+        }
+        return statistics;
+    }
+
+    public static <T> T assertStatementCount(int expected, Supplier<T> action) {
+        SqlStatistics statistics = SqlStatistics.begin();
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            SqlStatistics.end();
+        }
+        assertEquals(expected, statistics.getStatements(), "Unexpected number of SQL statements");
+        return result;
+    }
+
+    public static void assertStatementCount(int expected, Runnable action) {
+        assertEquals(expected, capture(action).getStatements(), "Unexpected number of SQL statements");
+    }
+}
@@ -0,0 +1,86 @@
+package ru.evlitvin.util.datasource;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SqlStatisticsFilterTest {
+
+    private SqlStatisticsFilter filter;
+
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    private FilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("test", Map.of("sql.stats.debug-headers", "true")));
+        filter = new SqlStatisticsFilter(env);
+        request = mock(HttpServletRequest.class);
+        when(request.getDispatcherType()).thenReturn(DispatcherType.REQUEST);
+        when(request.getMethod()).thenReturn("GET");
+        response = mock(HttpServletResponse.class);
+        chain = mock(FilterChain.class);
+    }
+
+    @Test
+    void givenDebugHeaders_whenFilterRegularRequest_thenBufferBodyAndSetStatisticsHeaders() throws Exception {
+        when(request.getRequestURI()).thenReturn("/api/v1/pupils/1");
+
+        filter.doFilter(request, response, chain);
+
+        ArgumentCaptor<ServletResponse> target = ArgumentCaptor.forClass(ServletResponse.class);
+        verify(chain).doFilter(eq(request), target.capture());
+        assertInstanceOf(ContentCachingResponseWrapper.class, target.getValue());
+        verify(response).setHeader(SqlStatisticsFilter.STATEMENTS_HEADER, "0");
+    }
+
+    @Test
+    void givenDebugHeaders_whenHandlerMarksRequestAsStreaming_thenWriteBodyUnbufferedWithoutHeaders() throws Exception {
+        Map<String, Object> attributes = new HashMap<>();
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(request).setAttribute(anyString(), any());
+        when(request.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.<String>getArgument(0)));
+        when(request.getRequestURI()).thenReturn("/api/v1/pupils/download");
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            SqlStatisticsFilter.markStreaming(servletRequest);
+            servletResponse.getOutputStream().write(42);
+        });
+
+        verify(outputStream).write(42);
+        verify(response, never()).setHeader(eq(SqlStatisticsFilter.STATEMENTS_HEADER), anyString());
+    }
+
+    @Test
+    void givenDebugHeaders_whenExportLikePathIsNotMarked_thenStillBuffer() throws Exception {
+        when(request.getRequestURI()).thenReturn("/foo/export");
+
+        filter.doFilter(request, response, chain);
+
+        ArgumentCaptor<ServletResponse> target = ArgumentCaptor.forClass(ServletResponse.class);
+        verify(chain).doFilter(eq(request), target.capture());
+        assertInstanceOf(ContentCachingResponseWrapper.class, target.getValue());
+    }
+}
@@ -0,0 +1,81 @@
+package ru.evlitvin.util.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatisticsListenerTest {
+
+    private DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:sqlstats;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(SqlStatisticsListener.proxy(dataSource, "test", true));
+        jdbcTemplate.execute("create table item (id bigint primary key, name varchar(32))");
+        jdbcTemplate.batchUpdate("insert into item (id, name) values (?, ?)",
+                List.of(new Object[]{1L, "one"}, new Object[]{2L, "two"}, new Object[]{3L, "three"}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table item");
+    }
+
+    @Test
+    void givenQueriesInScope_whenCapture_thenCountStatementsAndRows() {
+        SqlStatistics statistics = SqlStatisticsAssertions.capture(() -> {
+            jdbcTemplate.queryForList("select name from item", String.class);
+            jdbcTemplate.update("update item set name = ? where id > ?", "updated", 1L);
+        });
+
+        assertEquals(2, statistics.getStatements());
+        assertEquals(5, statistics.getRows());
+        assertTrue(statistics.getJdbcMillis() > 0);
+    }
+
+    @Test
+    void givenReadRowCountingDisabled_whenCapture_thenCountUpdatedRowsOnlyWithoutProxyingResultSets() {
+        JdbcTemplate uncounted = new JdbcTemplate(SqlStatisticsListener.proxy(dataSource, "test"));
+
+        SqlStatistics statistics = SqlStatisticsAssertions.capture(() -> {
+            uncounted.query("select name from item", resultSet -> {
+                assertFalse(Proxy.isProxyClass(resultSet.getClass()));
+            });
+            uncounted.update("update item set name = ? where id > ?", "updated", 1L);
+        });
+
+        assertEquals(2, statistics.getStatements());
+        assertEquals(2, statistics.getRows());
+    }
+
+    @Test
+    void givenSameStatementRepeated_whenGetRepeatedStatements_thenReportIt() {
+        SqlStatistics statistics = SqlStatisticsAssertions.capture(() -> {
+            for (long id = 1; id <= 3; id++) {
+                jdbcTemplate.queryForObject("select name from item where id = ?", String.class, id);
+            }
+        });
+
+        assertEquals(3, statistics.getStatements());
+        assertEquals(3, statistics.getRepeatedStatements(3).get("select name from item where id = ?"));
+        assertTrue(statistics.getRepeatedStatements(4).isEmpty());
+    }
+
+    @Test
+    void givenNoScope_whenQuery_thenNothingIsRecorded() {
+        jdbcTemplate.queryForList("select name from item", String.class);
+
+        assertNull(SqlStatistics.current());
+        assertEquals(0, SqlStatisticsAssertions.capture(() -> {}).getStatements());
+    }
+}
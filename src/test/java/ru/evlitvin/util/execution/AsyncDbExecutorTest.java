@@ -0,0 +1,72 @@
+package ru.evlitvin.util.execution;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncDbExecutorTest {
+
+    @Test
+    void givenSlowWork_whenSubmit_thenCompleteExceptionallyWithTimeout() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            AsyncDbExecutor asyncDbExecutor = new AsyncDbExecutor(executor, 50);
+
+            CompletionException exception = assertThrows(CompletionException.class,
+                    () -> asyncDbExecutor.submit(() -> await(release)).join());
+            assertInstanceOf(TimeoutException.class, exception.getCause());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void givenSlowWork_whenDefer_thenSetTimeoutAsErrorResult() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            AsyncDbExecutor asyncDbExecutor = new AsyncDbExecutor(executor, 50);
+
+            DeferredResult<Boolean> deferredResult = asyncDbExecutor.defer(() -> await(release));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (!deferredResult.hasResult() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertInstanceOf(TimeoutException.class, deferredResult.getResult());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void givenSaturatedExecutor_whenSubmit_thenThrowRejectedExecutionException() {
+        AsyncDbExecutor asyncDbExecutor = new AsyncDbExecutor(command -> {
+            throw new RejectedExecutionException("queue full");
+        }, 1000);
+
+        assertThrows(RejectedExecutionException.class, () -> asyncDbExecutor.submit(() -> 1));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
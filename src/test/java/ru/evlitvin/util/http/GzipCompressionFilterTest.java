@@ -0,0 +1,135 @@
+package ru.evlitvin.util.http;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GzipCompressionFilterTest {
+
+    private final GzipCompressionFilter filter = new GzipCompressionFilter(true, 64, List.of("application/json"));
+
+    private final Map<String, String> headers = new HashMap<>();
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        request = mock(HttpServletRequest.class);
+        when(request.getDispatcherType()).thenReturn(jakarta.servlet.DispatcherType.REQUEST);
+        response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.getContentType()).thenReturn("application/json");
+        when(response.getHeader(anyString())).thenAnswer(invocation -> headers.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> headers.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(response).setHeader(anyString(), anyString());
+        doAnswer(invocation -> headers.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(response).addHeader(anyString(), anyString());
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+    }
+
+    @Test
+    void givenLargeJsonAndGzipAccepted_whenFilter_thenCompressBodyAndWeakenETag() throws Exception {
+        acceptEncoding("br;q=1.0, gzip;q=0.8");
+        headers.put(HttpHeaders.ETAG, "\"school-1-0\"");
+        String json = "{\"items\":[" + "{\"id\":1,\"name\":\"School # 1\"},".repeat(20) + "{}]}";
+
+        filter.doFilter(request, response, write(json));
+
+        assertEquals("gzip", headers.get(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.get(HttpHeaders.VARY));
+        assertEquals("W/\"school-1-0\"", headers.get(HttpHeaders.ETAG));
+        assertTrue(body.size() < json.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(json, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void givenBodyBelowThreshold_whenFilter_thenWriteIdentityBodyWithContentLength() throws Exception {
+        acceptEncoding("gzip");
+
+        filter.doFilter(request, response, write("{\"id\":1}"));
+
+        assertNull(headers.get(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.get(HttpHeaders.VARY));
+        assertEquals("{\"id\":1}", body.toString(StandardCharsets.UTF_8));
+        verify(response).setContentLengthLong(8);
+    }
+
+    @Test
+    void givenGzipNotAccepted_whenFilter_thenWriteIdentityBodyWithVary() throws Exception {
+        acceptEncoding("identity, gzip;q=0");
+        String json = "{\"items\":[" + "{\"id\":1,\"name\":\"School # 1\"},".repeat(20) + "{}]}";
+
+        filter.doFilter(request, response, write(json));
+
+        assertFalse(GzipCompressionFilter.acceptsGzip(request));
+        assertNull(headers.get(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.get(HttpHeaders.VARY));
+        assertEquals(json, body.toString(StandardCharsets.UTF_8));
+        verify(response).setContentLengthLong(json.length());
+    }
+
+    @Test
+    void givenNonCompressibleContentType_whenFilter_thenOmitVary() throws Exception {
+        acceptEncoding("gzip");
+        when(response.getContentType()).thenReturn("image/png");
+        String content = "x".repeat(100);
+
+        filter.doFilter(request, response, write(content));
+
+        assertNull(headers.get(HttpHeaders.CONTENT_ENCODING));
+        assertNull(headers.get(HttpHeaders.VARY));
+        assertEquals(content, body.toString(StandardCharsets.UTF_8));
+    }
+
+    private void acceptEncoding(String value) {
+        when(request.getHeaders(HttpHeaders.ACCEPT_ENCODING)).thenReturn(Collections.enumeration(List.of(value)));
+    }
+
+    private static FilterChain write(String content) {
+        return (servletRequest, servletResponse) -> {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            servletResponse.setContentLength(bytes.length);
+            servletResponse.getOutputStream().write(bytes);
+            servletResponse.getOutputStream().flush();
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package ru.evlitvin.util.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RequestMetricsInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestMetricsInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RequestMetricsInterceptor(meterRegistry);
+    }
+
+    @Test
+    void givenCompletedRequest_whenAfterCompletion_thenRecordTimerByUriTemplate() {
+        handle("GET", "/api/v1/pupil/{id}", 200, null);
+        handle("GET", "/api/v1/pupil/{id}", 200, null);
+
+        Timer timer = meterRegistry.get(RequestMetricsInterceptor.REQUEST_TIMER)
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/pupil/{id}")
+                .tag("status", "200")
+                .tag("outcome", "SUCCESS")
+                .timer();
+        assertEquals(2, timer.count());
+        assertTrue(meterRegistry.find(RequestMetricsInterceptor.NOT_FOUND_COUNTER).counters().isEmpty());
+    }
+
+    @Test
+    void givenNotFoundResponse_whenAfterCompletion_thenIncrementNotFoundCounter() {
+        handle("GET", "/api/v1/teacher/{id}", 404, null);
+
+        assertEquals(1, meterRegistry.get(RequestMetricsInterceptor.NOT_FOUND_COUNTER)
+                .tag("uri", "/api/v1/teacher/{id}")
+                .counter()
+                .count());
+        assertEquals("CLIENT_ERROR", meterRegistry.get(RequestMetricsInterceptor.REQUEST_TIMER)
+                .timer().getId().getTag("outcome"));
+    }
+
+    @Test
+    void givenUnhandledException_whenAfterCompletion_thenRecordServerError() {
+        handle("DELETE", "/api/v1/school/delete/{id}", 200, new IllegalStateException("boom"));
+
+        assertEquals(1, meterRegistry.get(RequestMetricsInterceptor.REQUEST_TIMER)
+                .tag("status", "500")
+                .tag("outcome", "SERVER_ERROR")
+                .timer()
+                .count());
+    }
+
+    private void handle(String method, String pattern, int status, Exception ex) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        Object[] start = new Object[1];
+        doAnswer(invocation -> start[0] = invocation.getArgument(1)).when(request).setAttribute(anyString(), any());
+        when(request.getAttribute(anyString())).thenAnswer(invocation ->
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE.equals(invocation.getArgument(0)) ? pattern : start[0]);
+        when(request.getMethod()).thenReturn(method);
+        when(response.getStatus()).thenReturn(status);
+
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        interceptor.afterCompletion(request, response, new Object(), ex);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.evlitvin.util.migration;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchedUpdateChangeTest {
+
+    private Connection connection;
+
+    private Database database;
+
+    @BeforeEach
+    void setUp() throws SQLException, DatabaseException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:backfill;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE item (id BIGINT PRIMARY KEY, name VARCHAR(20), name_upper VARCHAR(20))");
+            statement.execute("INSERT INTO item (id, name) SELECT x, 'item' || x FROM SYSTEM_RANGE(1, 25)");
+        }
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE item");
+        }
+        connection.close();
+    }
+
+    @Test
+    void givenRowsToBackfill_whenExecute_thenUpdateInBatches() throws CustomChangeException, SQLException {
+        BatchedUpdateChange change = backfill(10);
+
+        change.execute(database);
+
+        assertEquals(25, change.getUpdatedRows());
+        assertEquals(3, change.getBatches());
+        assertEquals(0, count("name_upper IS NULL"));
+        assertEquals(1, count("id = 7 AND name_upper = 'ITEM7'"));
+    }
+
+    @Test
+    void givenPartiallyBackfilledTable_whenExecute_thenOnlyVisitRemainingRows() throws CustomChangeException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE item SET name_upper = 'DONE' WHERE id <= 12");
+        }
+        BatchedUpdateChange change = backfill(10);
+
+        change.execute(database);
+
+        assertEquals(13, change.getUpdatedRows());
+        assertEquals(2, change.getBatches());
+        assertEquals(12, count("name_upper = 'DONE'"));
+    }
+
+    @Test
+    void givenMissingSetClause_whenValidate_thenReportError() {
+        BatchedUpdateChange change = new BatchedUpdateChange();
+        change.setTableName("item");
+
+        assertTrue(change.validate(database).hasErrors());
+    }
+
+    private BatchedUpdateChange backfill(int batchSize) {
+        BatchedUpdateChange change = new BatchedUpdateChange();
+        change.setTableName("item");
+        change.setSetClause("name_upper = UPPER(name)");
+        change.setWhereClause("name_upper IS NULL");
+        change.setBatchSize(String.valueOf(batchSize));
+        return change;
+    }
+
+    private int count(String condition) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM item WHERE " + condition)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.evlitvin.util.migration;
+
+import liquibase.change.Change;
+import liquibase.change.custom.CustomChangeWrapper;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogTest {
+
+    private static final String MASTER = "db.changelog/db.changelog-master.yaml";
+
+    @Test
+    void givenBackfillChangeSet_whenValidate_thenBindInlineCustomChangeParameters() throws LiquibaseException {
+        ResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor();
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(MASTER, resourceAccessor)
+                .parse(MASTER, new ChangeLogParameters(), resourceAccessor);
+
+        List<Change> changes = changeLog.getChangeSets().stream()
+                .filter(changeSet -> changeSet.getId().equals("005-search-vector-backfill"))
+                .findFirst()
+                .orElseThrow()
+                .getChanges();
+
+        assertEquals(2, changes.size());
+        for (Change change : changes) {
+            assertFalse(change.validate(null).hasErrors(), () -> change.validate(null).toString());
+            BatchedUpdateChange backfill = (BatchedUpdateChange) ((CustomChangeWrapper) change).getCustomChange();
+            assertEquals("5000", backfill.getBatchSize());
+            assertEquals("search_vector IS NULL", backfill.getWhereClause());
+        }
+    }
+
+    @Test
+    void givenMasterChangeLog_whenParse_thenIncludeVersionedChangeSetsInOrder() throws LiquibaseException {
+        ResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor();
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(MASTER, resourceAccessor)
+                .parse(MASTER, new ChangeLogParameters(), resourceAccessor);
+
+        List<String> ids = changeLog.getChangeSets().stream().map(ChangeSet::getId).toList();
+
+        assertEquals("001-initial-schema", ids.get(0));
+        assertTrue(ids.indexOf("002-teacher-school-id-index") > 0);
+        assertTrue(ids.indexOf("003-version-columns") > ids.indexOf("002-name-trigram-indexes"));
+        assertTrue(ids.indexOf("005-search-vector-backfill") > ids.indexOf("004-search-vector-triggers"));
+        assertTrue(ids.indexOf("006-search-vector-indexes") > ids.indexOf("005-search-vector-backfill"));
+        assertEquals("007-sequence-increments", ids.get(ids.size() - 1));
+        assertNull(changeLog.getChangeSets().get(ids.size() - 1).getPreconditions());
+        assertEquals(ids.size(), ids.stream().distinct().count());
+        assertFalse(changeLog.getChangeSets().stream()
+                .filter(changeSet -> changeSet.getId().startsWith("002-") && changeSet.getId().endsWith("-index"))
+                .anyMatch(ChangeSet::isRunInTransaction));
+    }
+}
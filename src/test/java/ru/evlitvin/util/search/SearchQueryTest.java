@@ -0,0 +1,44 @@
+package ru.evlitvin.util.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryTest {
+
+    @Test
+    void givenSeveralWords_whenParse_thenBuildLowerCasePrefixQuery() {
+        SearchQuery query = SearchQuery.parse("  Ivan  IVANOV ");
+
+        assertEquals("ivan ivanov", query.getText());
+        assertEquals("ivan:* & ivanov:*", query.getPrefixQuery());
+    }
+
+    @Test
+    void givenTsQueryOperators_whenParse_thenKeepOnlyWords() {
+        SearchQuery query = SearchQuery.parse("ив'ан | !petrov:* & (42)");
+
+        assertEquals("ив:* & ан:* & petrov:* & 42:*", query.getPrefixQuery());
+    }
+
+    @Test
+    void givenTooManyWords_whenParse_thenKeepFirstWords() {
+        SearchQuery query = SearchQuery.parse("a b c d e f g");
+
+        assertEquals("a b c d e", query.getText());
+    }
+
+    @Test
+    void givenBlankOrTooLongQuery_whenParse_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("-*-"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("x".repeat(SearchQuery.MAX_LENGTH + 1)));
+    }
+
+    @Test
+    void givenOffsetBeyondMaximum_whenOffset_thenThrowIllegalArgumentException() {
+        assertEquals(SearchQuery.MAX_OFFSET, SearchQuery.offset(SearchQuery.MAX_OFFSET));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.offset(SearchQuery.MAX_OFFSET + 1));
+    }
+}